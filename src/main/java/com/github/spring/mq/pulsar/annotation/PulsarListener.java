@@ -24,6 +24,8 @@
 
 package com.github.spring.mq.pulsar.annotation;
 
+import com.github.spring.mq.pulsar.domain.MessageSchema;
+
 import java.lang.annotation.*;
 
 /**
@@ -92,4 +94,27 @@ public @interface PulsarListener {
      * Message type
      */
     Class<?> messageType() default String.class;
+
+    /**
+     * Pulsar schema of the payload
+     * <p>
+     * NONE decodes payloads with the message codec of their content type. Other
+     * values decode payloads with the Pulsar schema of the message type, matching
+     * messages sent with {@code PulsarTemplate.send(topic, key, message, schema)};
+     * routing by payload field then only works for JSON payloads, other schemas
+     * need a msgRoute property or a single handler per topic. Schemas decode the
+     * payload as a whole and cannot be combined with a dataKey. The consumer subscribes
+     * with the schema so that payloads of older schema versions decode as well; all
+     * listeners of a topic must therefore use the same schema
+     */
+    MessageSchema schema() default MessageSchema.NONE;
+
+    /**
+     * Number of messages of the topic processed at once on the shared listener scheduler
+     * <p>
+     * Messages with the same key are always processed in order, messages with
+     * different keys are processed in parallel. Values less than 1 fall back to
+     * the consumer configuration
+     */
+    int concurrency() default 0;
 }
\ No newline at end of file
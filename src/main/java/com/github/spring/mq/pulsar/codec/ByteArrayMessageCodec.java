@@ -0,0 +1,59 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Raw codec passing {@code byte[]} values through unchanged
+ *
+ * <p>Raw payloads decode like JSON payloads, a {@code byte[]} target receives them as they are.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public class ByteArrayMessageCodec extends JacksonMessageCodec {
+
+    public static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
+
+    public ByteArrayMessageCodec(ObjectMapper objectMapper) {
+        super(objectMapper, APPLICATION_OCTET_STREAM);
+    }
+
+    @Override
+    public boolean canEncode(Class<?> type) {
+        return byte[].class.equals(type);
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        return (byte[]) value;
+    }
+
+    @Override
+    public byte[] encode(Object value, EncodeBuffer buffer) {
+        return encode(value);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.codec;
+
+import com.github.spring.mq.pulsar.exception.JacksonException;
+import com.github.spring.mq.pulsar.exception.PulsarSchemaDecodeException;
+import org.springframework.util.ObjectUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binding of payloads into one target type across content types
+ *
+ * <p>Listener containers create one binding per handler. The decoder of the default
+ * content type is created with the binding, decoders of other content types the first
+ * time a message of that content type arrives; each message then picks its decoder from
+ * its content type property without inspecting the payload. Bindings created by
+ * {@link #of(Class, SchemaDecoder)} decode every payload with one fixed decoder, such as
+ * a Pulsar schema, regardless of the content type but with the schema version of the message.
+ *
+ * @param <T> Target type
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public final class CodecBinding<T> {
+
+    private final MessageCodecRegistry registry;
+    private final String dataKey;
+    private final Class<T> type;
+    private final MessageDecoder<T> defaultDecoder;
+    private final SchemaDecoder<T> schemaDecoder;
+    private final ConcurrentHashMap<MessageCodec, MessageDecoder<T>> decoders = new ConcurrentHashMap<>();
+
+    CodecBinding(MessageCodecRegistry registry, String dataKey, Class<T> type) {
+        this.registry = registry;
+        this.dataKey = ObjectUtils.isEmpty(dataKey) ? null : dataKey;
+        this.type = type;
+        this.defaultDecoder = registry.getCodec(null).decoder(type, this.dataKey);
+        this.schemaDecoder = null;
+    }
+
+    private CodecBinding(Class<T> type, SchemaDecoder<T> decoder) {
+        this.registry = null;
+        this.dataKey = null;
+        this.type = type;
+        this.defaultDecoder = null;
+        this.schemaDecoder = decoder;
+    }
+
+    /**
+     * Binding decoding every payload with a fixed decoder
+     *
+     * @param type    Target type
+     * @param decoder Decoder of all payloads, the content type of messages is ignored
+     */
+    public static <T> CodecBinding<T> of(Class<T> type, SchemaDecoder<T> decoder) {
+        return new CodecBinding<>(type, decoder);
+    }
+
+    /**
+     * Decode a payload
+     *
+     * @param data        Message payload
+     * @param contentType Content type of the message, null for messages sent without one
+     * @throws JacksonException             if the payload cannot be decoded by the message codec
+     * @throws PulsarSchemaDecodeException if the payload cannot be decoded by the fixed decoder
+     */
+    public T decode(byte[] data, String contentType) {
+        return decode(data, contentType, null);
+    }
+
+    /**
+     * Decode a payload written with a schema version
+     *
+     * @param data          Message payload
+     * @param contentType   Content type of the message, null for messages sent without one
+     * @param schemaVersion Schema version of the message, only used by bindings with a fixed decoder
+     * @throws JacksonException             if the payload cannot be decoded by the message codec
+     * @throws PulsarSchemaDecodeException if the payload cannot be decoded by the fixed decoder
+     */
+    public T decode(byte[] data, String contentType, byte[] schemaVersion) {
+        if (registry == null) {
+            try {
+                return schemaDecoder.decode(data, schemaVersion);
+            } catch (Exception e) {
+                throw new PulsarSchemaDecodeException("Failed to decode " + type.getSimpleName() + " payload with its schema", e);
+            }
+        }
+        MessageCodec codec = registry.getCodec(contentType);
+        MessageDecoder<T> decoder = codec == registry.getCodec(null)
+                ? defaultDecoder
+                : decoders.computeIfAbsent(codec, c -> c.decoder(type, dataKey));
+        try {
+            return decoder.decode(data);
+        } catch (JacksonException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JacksonException("Failed to decode " + codec.getContentType() + " payload", e);
+        }
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public String getDataKey() {
+        return dataKey;
+    }
+}
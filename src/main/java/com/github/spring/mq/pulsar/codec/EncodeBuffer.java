@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.codec;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Reusable output buffer of message encoding
+ *
+ * <p>Codecs write a payload into the buffer and take one exact-size copy with
+ * {@link #toByteArray()}. The buffer keeps its backing array across messages, so a
+ * warmed-up buffer encodes without growing or allocating anything but the payload
+ * itself. Not thread-safe, buffers are handed out one per encoding by an
+ * {@link EncodeBufferPool}.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public final class EncodeBuffer extends OutputStream {
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private byte[] buf;
+    private int count;
+
+    public EncodeBuffer(int initialCapacity) {
+        this.buf = new byte[initialCapacity];
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    /**
+     * Discard the content, keeping the backing array
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * Number of bytes written since the last reset
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Size of the backing array
+     */
+    public int capacity() {
+        return buf.length;
+    }
+
+    /**
+     * Copy of the content, the only allocation of an encoding once the buffer is warmed up
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= buf.length) {
+            return;
+        }
+        if (minCapacity < 0 || minCapacity > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Encoded payload exceeds the maximum array size");
+        }
+        int newCapacity = Math.max(minCapacity, buf.length << 1);
+        buf = Arrays.copyOf(buf, newCapacity < 0 || newCapacity > MAX_ARRAY_SIZE ? MAX_ARRAY_SIZE : newCapacity);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.codec;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded pool of encode buffers
+ *
+ * <p>Buffers are pooled rather than bound to threads, so callers on virtual threads share
+ * the same few buffers instead of each warming up its own. Buffers that grew beyond the
+ * retained capacity, e.g. after a large or chunked payload, are dropped on release so
+ * the pool does not pin their memory.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public final class EncodeBufferPool {
+
+    private final ArrayBlockingQueue<EncodeBuffer> buffers;
+    private final int initialCapacity;
+    private final int maxRetainedCapacity;
+
+    /**
+     * @param maxPooled           Maximum number of idle buffers kept
+     * @param initialCapacity     Initial size of new buffers
+     * @param maxRetainedCapacity Buffers larger than this are not returned to the pool
+     */
+    public EncodeBufferPool(int maxPooled, int initialCapacity, int maxRetainedCapacity) {
+        if (maxPooled < 1) {
+            throw new IllegalArgumentException("maxPooled must be greater than 0");
+        }
+        this.buffers = new ArrayBlockingQueue<>(maxPooled);
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+    }
+
+    /**
+     * Take an idle buffer, or create one if the pool is empty
+     */
+    public EncodeBuffer acquire() {
+        EncodeBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : new EncodeBuffer(initialCapacity);
+    }
+
+    /**
+     * Return a buffer, dropping it if it grew too large or the pool is full
+     */
+    public void release(EncodeBuffer buffer) {
+        if (buffer.capacity() <= maxRetainedCapacity) {
+            buffer.reset();
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Number of idle buffers
+     */
+    public int getPooled() {
+        return buffers.size();
+    }
+}
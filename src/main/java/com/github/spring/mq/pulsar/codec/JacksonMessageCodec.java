@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.spring.mq.pulsar.core.PayloadBinding;
+
+/**
+ * Jackson message codec
+ *
+ * <p>Encodes values with an {@link ObjectMapper} and decodes them through a
+ * {@link PayloadBinding}. Besides JSON, any Jackson binary format works by passing a
+ * mapper built on its factory, e.g. Smile or CBOR:
+ * <pre>{@code
+ * @Bean
+ * public MessageCodec smileCodec() {
+ *     return new JacksonMessageCodec(new ObjectMapper(new SmileFactory()), "application/x-jackson-smile");
+ * }
+ * }</pre>
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public class JacksonMessageCodec implements MessageCodec {
+
+    public static final String APPLICATION_JSON = "application/json";
+
+    private final ObjectMapper objectMapper;
+    private final String contentType;
+
+    public JacksonMessageCodec(ObjectMapper objectMapper) {
+        this(objectMapper, APPLICATION_JSON);
+    }
+
+    public JacksonMessageCodec(ObjectMapper objectMapper, String contentType) {
+        this.objectMapper = objectMapper;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws Exception {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public byte[] encode(Object value, EncodeBuffer buffer) throws Exception {
+        buffer.reset();
+        objectMapper.writeValue(buffer, value);
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public <T> MessageDecoder<T> decoder(Class<T> type, String dataKey) {
+        return new PayloadBinding<>(objectMapper, dataKey, type)::decode;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.codec;
+
+/**
+ * Message codec
+ *
+ * <p>Encodes message values into payloads of one content type and decodes them again.
+ * Producers stamp the content type on every message (see
+ * {@link com.github.spring.mq.pulsar.domain.MsgMetaKey#CONTENT_TYPE}) and consumers
+ * pick the codec from that property, so a topic can move to another format without
+ * touching the code that sends or consumes it.
+ *
+ * <p>Codecs registered as beans are used for the producers whose {@code content-type}
+ * names them, and for the value types they claim through {@link #canEncode(Class)}.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public interface MessageCodec {
+
+    /**
+     * Content type of the payloads, e.g. {@code application/json}
+     */
+    String getContentType();
+
+    /**
+     * Whether values of a type are encoded with this codec on topics without a configured content type
+     */
+    default boolean canEncode(Class<?> type) {
+        return false;
+    }
+
+    /**
+     * Encode a value
+     *
+     * @throws Exception if the value cannot be encoded
+     */
+    byte[] encode(Object value) throws Exception;
+
+    /**
+     * Encode a value through a reusable buffer
+     *
+     * <p>The template calls this method with a pooled buffer. Codecs writing through a stream
+     * override it to skip the intermediate arrays of {@link #encode(Object)}; the returned
+     * payload must not share the buffer's array, the client holds on to it until the message
+     * is acknowledged.
+     *
+     * @throws Exception if the value cannot be encoded
+     */
+    default byte[] encode(Object value, EncodeBuffer buffer) throws Exception {
+        return encode(value);
+    }
+
+    /**
+     * Create a decoder for a target type, called once per listener and type
+     *
+     * @param type    Target type
+     * @param dataKey Field of the payload holding the value, null to decode the whole payload
+     */
+    <T> MessageDecoder<T> decoder(Class<T> type, String dataKey);
+}
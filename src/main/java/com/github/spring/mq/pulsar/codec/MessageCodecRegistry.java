@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.spring.mq.pulsar.exception.PulsarProducerConfigException;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Message codec registry
+ *
+ * <p>Holds the built-in codecs ({@code String} as UTF-8 text, {@code byte[]} raw, everything
+ * else JSON) and the registered ones, which take precedence. The encoding codec of a value
+ * type is resolved once and memoized; codecs are looked up by content type for topics
+ * configured with one and for decoding.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public class MessageCodecRegistry {
+
+    private final MessageCodec defaultCodec;
+    private final JsonFactory jsonFactory;
+    /**
+     * Codecs in lookup order: registered codecs first, then the built-in ones
+     */
+    private final List<MessageCodec> codecs = new ArrayList<>();
+    private final Map<String, MessageCodec> codecsByContentType = new LinkedHashMap<>();
+    private final ConcurrentHashMap<Class<?>, MessageCodec> encoders = new ConcurrentHashMap<>();
+
+    public MessageCodecRegistry(ObjectMapper objectMapper) {
+        this(objectMapper, List.of());
+    }
+
+    /**
+     * @param objectMapper Object mapper of the built-in codecs
+     * @param codecs       Registered codecs, a codec replaces a built-in one of the same content type
+     */
+    public MessageCodecRegistry(ObjectMapper objectMapper, List<? extends MessageCodec> codecs) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.codecs.addAll(codecs);
+        this.codecs.add(new StringMessageCodec(objectMapper));
+        this.codecs.add(new ByteArrayMessageCodec(objectMapper));
+        this.codecs.add(new JacksonMessageCodec(objectMapper));
+        for (MessageCodec codec : this.codecs) {
+            codecsByContentType.putIfAbsent(codec.getContentType(), codec);
+        }
+        this.defaultCodec = codecsByContentType.get(JacksonMessageCodec.APPLICATION_JSON);
+    }
+
+    /**
+     * Codec encoding values of a type
+     *
+     * <p>{@code String} and {@code byte[]} values are already encoded and keep their codecs;
+     * other values use the codec of the content type if one is given.
+     *
+     * @param type        Value type
+     * @param contentType Content type configured for the topic, may be null
+     * @throws PulsarProducerConfigException if no codec is registered for the content type
+     */
+    public MessageCodec getEncoder(Class<?> type, String contentType) {
+        MessageCodec codec = encoders.computeIfAbsent(type, this::findEncoder);
+        if (!StringUtils.hasText(contentType) || codec.getContentType().equals(contentType)
+                || String.class.equals(type) || byte[].class.equals(type)) {
+            return codec;
+        }
+        MessageCodec configured = codecsByContentType.get(contentType);
+        if (configured == null) {
+            throw new PulsarProducerConfigException("No message codec registered for content type: " + contentType);
+        }
+        return configured;
+    }
+
+    /**
+     * Codec of a content type, the JSON codec for messages without or with an unknown content type
+     */
+    public MessageCodec getCodec(String contentType) {
+        if (contentType == null) {
+            return defaultCodec;
+        }
+        return codecsByContentType.getOrDefault(contentType, defaultCodec);
+    }
+
+    /**
+     * Jackson factory parsing payloads of a content type
+     *
+     * <p>Payloads of Jackson codecs are parsed with the factory of their mapper, e.g. Smile
+     * or CBOR; payloads of other codecs are parsed as JSON.
+     */
+    public JsonFactory getJsonFactory(String contentType) {
+        return getCodec(contentType) instanceof JacksonMessageCodec jacksonCodec
+                ? jacksonCodec.getObjectMapper().getFactory()
+                : jsonFactory;
+    }
+
+    /**
+     * Create a binding decoding payloads of any content type into a target type
+     */
+    public <T> CodecBinding<T> createBinding(String dataKey, Class<T> type) {
+        return new CodecBinding<>(this, dataKey, type);
+    }
+
+    private MessageCodec findEncoder(Class<?> type) {
+        for (MessageCodec codec : codecs) {
+            if (codec.canEncode(type)) {
+                return codec;
+            }
+        }
+        return defaultCodec;
+    }
+}
@@ -34,8 +34,10 @@ import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.github.spring.mq.pulsar.codec.MessageCodec;
 import com.github.spring.mq.pulsar.core.DefaultPulsarMessageSender;
 import com.github.spring.mq.pulsar.core.DefaultTopicMessageSender;
+import com.github.spring.mq.pulsar.core.ProducerConfigResolver;
 import com.github.spring.mq.pulsar.core.PulsarMessageSender;
 import com.github.spring.mq.pulsar.core.PulsarTemplate;
 import com.github.spring.mq.pulsar.exception.PulsarClientInitException;
@@ -46,9 +48,11 @@ import io.micrometer.tracing.Tracer;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.pulsar.client.api.ClientBuilder;
+import org.apache.pulsar.client.api.MessageRouter;
 import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
@@ -152,9 +156,13 @@ public class PulsarAutoConfiguration {
                                          ObjectMapper objectMapper,
                                          PulsarInterceptorConfiguration.PulsarInterceptorRegistry interceptorRegistry,
                                          DeadLetterMessageProcessor deadLetterMessageProcessor,
-                                         Tracer tracer) {
+                                         Tracer tracer,
+                                         ObjectProvider<MessageRouter> messageRouter,
+                                         ObjectProvider<MessageCodec> messageCodecs) {
         PulsarTemplate template = new PulsarTemplate(pulsarClient, pulsarProperties, objectMapper, deadLetterMessageProcessor, tracer);
         template.setInterceptorRegistry(interceptorRegistry);
+        messageRouter.ifAvailable(template::setMessageRouter);
+        template.setMessageCodecs(messageCodecs.orderedStream().toList());
         return template;
     }
 
@@ -172,10 +180,12 @@ public class PulsarAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public MultipleProducerBeanRegistrar multipleProducerBeanRegistrar(PulsarMessageSender pulsarMessageSender) {
+    public MultipleProducerBeanRegistrar multipleProducerBeanRegistrar(PulsarMessageSender pulsarMessageSender,
+                                                                       PulsarTemplate pulsarTemplate) {
         MultipleProducerBeanRegistrar multipleProducerBeanRegistrar = new MultipleProducerBeanRegistrar();
         multipleProducerBeanRegistrar.setPulsarProperties(pulsarProperties);
         multipleProducerBeanRegistrar.setPulsarMessageSender(pulsarMessageSender);
+        multipleProducerBeanRegistrar.setPulsarTemplate(pulsarTemplate);
         return multipleProducerBeanRegistrar;
     }
 
@@ -223,17 +233,26 @@ public class PulsarAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public PulsarListenerAnnotationBeanPostProcessor pulsarListenerAnnotationBeanPostProcessor(PulsarListenerContainerFactory containerFactory) {
-        return new PulsarListenerAnnotationBeanPostProcessor(containerFactory);
+        return new PulsarListenerAnnotationBeanPostProcessor(containerFactory, pulsarProperties.getListener().getStartupTimeout());
     }
 
     /**
      * Multiple producer bean registrar
+     *
+     * <p>With producer warm-up enabled, the producers behind the registered senders are
+     * created before the senders are handed out. The Jackson writers of the producers'
+     * warm-up types are resolved alongside.
      */
     public static class MultipleProducerBeanRegistrar implements ApplicationContextAware, InitializingBean {
 
         private ApplicationContext applicationContext;
         private PulsarProperties pulsarProperties;
         private PulsarMessageSender pulsarMessageSender;
+        private PulsarTemplate pulsarTemplate;
+
+        public void setPulsarTemplate(PulsarTemplate pulsarTemplate) {
+            this.pulsarTemplate = pulsarTemplate;
+        }
 
         public void setPulsarMessageSender(PulsarMessageSender pulsarMessageSender) {
             this.pulsarMessageSender = pulsarMessageSender;
@@ -258,6 +277,10 @@ public class PulsarAutoConfiguration {
                     for (Map.Entry<String, PulsarProperties.Producer> entry : producerMap.entrySet()) {
                         String beanName = entry.getKey();
                         PulsarProperties.Producer config = entry.getValue();
+                        if (ProducerConfigResolver.isPattern(config.getTopic())) {
+                            // Topic rules only supply settings for the topics they match
+                            continue;
+                        }
                         beanFactory.registerBeanDefinition(beanName, BeanDefinitionBuilder.genericBeanDefinition(DefaultTopicMessageSender.class, () -> {
                             DefaultTopicMessageSender sender = new DefaultTopicMessageSender();
                             sender.setPulsarMessageSender(pulsarMessageSender);
@@ -267,6 +290,14 @@ public class PulsarAutoConfiguration {
                     }
                 }
             }
+
+            PulsarProperties.ProducerWarmup warmup = pulsarProperties.getProducerWarmup();
+            if (warmup.isEnabled() && pulsarTemplate != null) {
+                pulsarTemplate.warmUpProducers(warmup.getTimeout());
+            }
+            if (pulsarTemplate != null) {
+                pulsarTemplate.warmUpProducerTypes();
+            }
         }
     }
 
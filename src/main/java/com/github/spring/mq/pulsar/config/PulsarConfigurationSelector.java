@@ -96,6 +96,9 @@ public class PulsarConfigurationSelector implements ImportSelector {
         // Tracing configuration - enabled by default
         imports.add(PulsarTracingConfiguration.class.getName());
 
+        // Reactive API, only active when Reactor is on the classpath
+        imports.add(PulsarReactiveConfiguration.class.getName());
+
         return imports.toArray(new String[0]);
     }
 }
\ No newline at end of file
@@ -30,7 +30,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -68,6 +70,21 @@ public class PulsarProperties {
     @NestedConfigurationProperty
     private Map<String, Producer> producerMap = new HashMap<>();
 
+    /**
+     * Producer cache configuration
+     */
+    private ProducerCache producerCache = new ProducerCache();
+
+    /**
+     * Producer warm-up configuration
+     */
+    private ProducerWarmup producerWarmup = new ProducerWarmup();
+
+    /**
+     * Jackson warm-up configuration
+     */
+    private JacksonWarmup jacksonWarmup = new JacksonWarmup();
+
     /**
      * Consumer configuration
      */
@@ -84,6 +101,11 @@ public class PulsarProperties {
      */
     private Client client = new Client();
 
+    /**
+     * Listener execution configuration
+     */
+    private Listener listener = new Listener();
+
     /**
      * Transaction configuration
      */
@@ -131,6 +153,30 @@ public class PulsarProperties {
         this.producerMap = producerMap;
     }
 
+    public ProducerCache getProducerCache() {
+        return producerCache;
+    }
+
+    public void setProducerCache(ProducerCache producerCache) {
+        this.producerCache = producerCache;
+    }
+
+    public ProducerWarmup getProducerWarmup() {
+        return producerWarmup;
+    }
+
+    public void setProducerWarmup(ProducerWarmup producerWarmup) {
+        this.producerWarmup = producerWarmup;
+    }
+
+    public JacksonWarmup getJacksonWarmup() {
+        return jacksonWarmup;
+    }
+
+    public void setJacksonWarmup(JacksonWarmup jacksonWarmup) {
+        this.jacksonWarmup = jacksonWarmup;
+    }
+
     public Consumer getConsumer() {
         return consumer;
     }
@@ -155,6 +201,14 @@ public class PulsarProperties {
         this.client = client;
     }
 
+    public Listener getListener() {
+        return listener;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
     public Transaction getTransaction() {
         return transaction;
     }
@@ -245,6 +299,10 @@ public class PulsarProperties {
      * Producer configuration
      */
     public static class Producer {
+        /**
+         * Topic name, or a rule applying these settings to many topics: a glob such as
+         * {@code orders-*} or a regular expression prefixed with {@code regex:}
+         */
         private String topic;
         private Duration sendTimeout = Duration.ofSeconds(30);
         private boolean blockIfQueueFull = false;
@@ -252,6 +310,44 @@ public class PulsarProperties {
         private boolean batchingEnabled = true;
         private int batchingMaxMessages = 1000;
         private Duration batchingMaxPublishDelay = Duration.ofMillis(10);
+        /**
+         * Compression type: NONE, LZ4, ZLIB, ZSTD, SNAPPY
+         */
+        private String compressionType = "NONE";
+        /**
+         * Compress only large payloads, through a second producer of the topic
+         */
+        private AdaptiveCompression adaptiveCompression = new AdaptiveCompression();
+        /**
+         * Batcher type: DEFAULT, or KEY_BASED to batch messages of the same key together
+         */
+        private String batcherType = "DEFAULT";
+        /**
+         * Routing mode on partitioned topics: RoundRobinPartition, SinglePartition, or
+         * CustomPartition to route through the message router
+         */
+        private String routingMode = "RoundRobinPartition";
+        /**
+         * Message size limit and chunking of payloads exceeding it
+         */
+        private Chunking chunking = new Chunking();
+        /**
+         * How blocking sends deal with batching: BATCH waits for the batch to be published,
+         * FLUSH publishes the pending batch right away, DEDICATED sends through a second
+         * producer of the topic that does not batch
+         */
+        private String syncSendMode = "BATCH";
+        /**
+         * Content type of the message codec encoding object values, e.g. application/json;
+         * empty to choose by value type. String and byte[] values are sent as they are
+         */
+        private String contentType;
+
+        /**
+         * Payload types sent to the topic, whose Jackson serializers are resolved at startup
+         * instead of on the first send
+         */
+        private List<Class<?>> warmupTypes = new ArrayList<>();
 
         public String getTopic() {
             return topic;
@@ -308,6 +404,168 @@ public class PulsarProperties {
         public void setBatchingMaxPublishDelay(Duration batchingMaxPublishDelay) {
             this.batchingMaxPublishDelay = batchingMaxPublishDelay;
         }
+
+        public String getCompressionType() {
+            return compressionType;
+        }
+
+        public void setCompressionType(String compressionType) {
+            this.compressionType = compressionType;
+        }
+
+        public AdaptiveCompression getAdaptiveCompression() {
+            return adaptiveCompression;
+        }
+
+        public void setAdaptiveCompression(AdaptiveCompression adaptiveCompression) {
+            this.adaptiveCompression = adaptiveCompression;
+        }
+
+        public String getBatcherType() {
+            return batcherType;
+        }
+
+        public void setBatcherType(String batcherType) {
+            this.batcherType = batcherType;
+        }
+
+        public String getRoutingMode() {
+            return routingMode;
+        }
+
+        public void setRoutingMode(String routingMode) {
+            this.routingMode = routingMode;
+        }
+
+        public Chunking getChunking() {
+            return chunking;
+        }
+
+        public void setChunking(Chunking chunking) {
+            this.chunking = chunking;
+        }
+
+        public String getSyncSendMode() {
+            return syncSendMode;
+        }
+
+        public void setSyncSendMode(String syncSendMode) {
+            this.syncSendMode = syncSendMode;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public List<Class<?>> getWarmupTypes() {
+            return warmupTypes;
+        }
+
+        public void setWarmupTypes(List<Class<?>> warmupTypes) {
+            this.warmupTypes = warmupTypes;
+        }
+    }
+
+    /**
+     * Chunking configuration
+     *
+     * <p>Payloads larger than the maximum message size are sent through a second, chunking
+     * producer of the topic that splits them into chunks the broker accepts; without chunking
+     * they are rejected before being sent. Chunking producers do not batch, and like with
+     * adaptive compression the two producers do not preserve order between each other.
+     */
+    public static class Chunking {
+        /**
+         * Whether payloads exceeding the maximum message size are sent in chunks
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum message size accepted by the broker ({@code maxMessageSize}) in bytes
+         */
+        private int maxMessageSize = 5 * 1024 * 1024;
+
+        /**
+         * Maximum chunk size in bytes, 0 to use the broker's maximum message size
+         */
+        private int chunkSize = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxMessageSize() {
+            return maxMessageSize;
+        }
+
+        public void setMaxMessageSize(int maxMessageSize) {
+            this.maxMessageSize = maxMessageSize;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Adaptive compression configuration
+     *
+     * <p>Payloads below the minimum size are sent uncompressed, larger ones through a second
+     * producer of the topic using the configured compression. The two producers do not
+     * preserve order between each other, so messages that must stay ordered by key should
+     * not rely on adaptive compression.
+     */
+    public static class AdaptiveCompression {
+        /**
+         * Whether adaptive compression is enabled, overrides the producer compression type
+         */
+        private boolean enabled = false;
+
+        /**
+         * Minimum serialized payload size in bytes for a message to be compressed
+         */
+        private int minSize = 1024;
+
+        /**
+         * Compression type of large payloads: LZ4, ZLIB, ZSTD, SNAPPY
+         */
+        private String type = "ZSTD";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(int minSize) {
+            this.minSize = minSize;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
     }
 
     /**
@@ -356,7 +614,33 @@ public class PulsarProperties {
          */
         private int timeToReconsumeDelay = 1000;
 
+        /**
+         * Maximum number of chunked messages being reassembled at once, the oldest
+         * incomplete message is dropped (or acknowledged) beyond it
+         */
+        private int maxPendingChunkedMessage = 10;
+        /**
+         * Whether the oldest incomplete chunked message is acknowledged instead of
+         * redelivered when the pending chunked messages are full
+         */
         private boolean autoAckOldestChunkedMessageOnQueueFull = false;
+        /**
+         * Time after which the chunks of an incomplete chunked message are released
+         */
+        private Duration expireTimeOfIncompleteChunkedMessage = Duration.ofMinutes(1);
+        /**
+         * Number of messages a listener processes at once, messages with the same key keep their order
+         */
+        private int concurrency = 1;
+        /**
+         * Maximum number of received messages waiting for the listener workers;
+         * EVENT consumers are paused while the queue is full
+         */
+        private int dispatchQueueCapacity = 100;
+        /**
+         * Batch receive policy used by batch listeners
+         */
+        private Batch batch = new Batch();
 
         public String getTopic() {
             return topic;
@@ -470,6 +754,22 @@ public class PulsarProperties {
             this.receiverQueueSize = receiverQueueSize;
         }
 
+        public int getMaxPendingChunkedMessage() {
+            return maxPendingChunkedMessage;
+        }
+
+        public void setMaxPendingChunkedMessage(int maxPendingChunkedMessage) {
+            this.maxPendingChunkedMessage = maxPendingChunkedMessage;
+        }
+
+        public Duration getExpireTimeOfIncompleteChunkedMessage() {
+            return expireTimeOfIncompleteChunkedMessage;
+        }
+
+        public void setExpireTimeOfIncompleteChunkedMessage(Duration expireTimeOfIncompleteChunkedMessage) {
+            this.expireTimeOfIncompleteChunkedMessage = expireTimeOfIncompleteChunkedMessage;
+        }
+
         public boolean isAutoAckOldestChunkedMessageOnQueueFull() {
             return autoAckOldestChunkedMessageOnQueueFull;
         }
@@ -477,6 +777,214 @@ public class PulsarProperties {
         public void setAutoAckOldestChunkedMessageOnQueueFull(boolean autoAckOldestChunkedMessageOnQueueFull) {
             this.autoAckOldestChunkedMessageOnQueueFull = autoAckOldestChunkedMessageOnQueueFull;
         }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getDispatchQueueCapacity() {
+            return dispatchQueueCapacity;
+        }
+
+        public void setDispatchQueueCapacity(int dispatchQueueCapacity) {
+            this.dispatchQueueCapacity = dispatchQueueCapacity;
+        }
+
+        public Batch getBatch() {
+            return batch;
+        }
+
+        public void setBatch(Batch batch) {
+            this.batch = batch;
+        }
+
+        /**
+         * Batch receive configuration
+         */
+        public static class Batch {
+            /**
+             * Maximum number of messages in a batch
+             */
+            private int maxMessages = 100;
+
+            /**
+             * Maximum total payload size of a batch in bytes
+             */
+            private int maxBytes = 10 * 1024 * 1024;
+
+            /**
+             * Maximum time to wait for a batch to fill up
+             */
+            private Duration timeout = Duration.ofMillis(100);
+
+            public int getMaxMessages() {
+                return maxMessages;
+            }
+
+            public void setMaxMessages(int maxMessages) {
+                this.maxMessages = maxMessages;
+            }
+
+            public int getMaxBytes() {
+                return maxBytes;
+            }
+
+            public void setMaxBytes(int maxBytes) {
+                this.maxBytes = maxBytes;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+        }
+    }
+
+    /**
+     * Producer cache configuration
+     */
+    public static class ProducerCache {
+        /**
+         * Maximum number of cached producers, the least recently used idle producer is closed beyond it; 0 for unbounded
+         */
+        private int maxSize = 1000;
+
+        /**
+         * Time after which an unused producer is closed, zero to keep idle producers
+         */
+        private Duration idleTimeout = Duration.ofMinutes(30);
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+    }
+
+    /**
+     * Producer warm-up configuration
+     */
+    public static class ProducerWarmup {
+        /**
+         * Create the producers of all configured topics at startup instead of on first send
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum time startup waits for the producers, slower producers keep being created in the background
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * Jackson warm-up configuration
+     */
+    public static class JacksonWarmup {
+        /**
+         * Resolve the Jackson readers and writers of listener message types and producer
+         * warm-up types at startup instead of on the first message
+         */
+        private boolean enabled = true;
+
+        /**
+         * Also encode and decode a sample of each type, built from an empty JSON object,
+         * to load and run the whole serialization path once
+         */
+        private boolean roundTrip = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isRoundTrip() {
+            return roundTrip;
+        }
+
+        public void setRoundTrip(boolean roundTrip) {
+            this.roundTrip = roundTrip;
+        }
+    }
+
+    /**
+     * Listener execution configuration
+     */
+    public static class Listener {
+        /**
+         * Run listener loops and workers on virtual threads when the JVM supports them (Java 21+)
+         */
+        private boolean virtualThreads = false;
+
+        /**
+         * Number of threads of the shared listener scheduler running the receive callbacks and
+         * handlers of all listeners, 0 for twice the number of processors
+         */
+        private int schedulerThreads = 0;
+
+        /**
+         * Maximum time startup waits for all listener consumers to subscribe
+         */
+        private Duration startupTimeout = Duration.ofSeconds(60);
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+        public int getSchedulerThreads() {
+            return schedulerThreads;
+        }
+
+        public void setSchedulerThreads(int schedulerThreads) {
+            this.schedulerThreads = schedulerThreads;
+        }
+
+        public Duration getStartupTimeout() {
+            return startupTimeout;
+        }
+
+        public void setStartupTimeout(Duration startupTimeout) {
+            this.startupTimeout = startupTimeout;
+        }
     }
 
     /**
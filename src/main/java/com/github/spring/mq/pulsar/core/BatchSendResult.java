@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import org.apache.pulsar.client.api.MessageId;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Result of a batch send
+ *
+ * @param messageIds Message IDs in the order of the sent collection, null for messages
+ *                   that were filtered by an interceptor or failed
+ * @param failures   Send failures keyed by the index of the message in the sent collection
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public record BatchSendResult(List<MessageId> messageIds, Map<Integer, Throwable> failures) {
+
+    public BatchSendResult {
+        messageIds = Collections.unmodifiableList(messageIds);
+        failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Number of messages in the batch
+     */
+    public int size() {
+        return messageIds.size();
+    }
+
+    /**
+     * Number of messages that were sent successfully
+     */
+    public int successCount() {
+        return (int) messageIds.stream().filter(Objects::nonNull).count();
+    }
+
+    /**
+     * Whether any message failed
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
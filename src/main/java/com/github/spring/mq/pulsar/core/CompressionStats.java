@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+/**
+ * Compression achieved by a producer
+ *
+ * <p>Payload sizes are counted as messages are acknowledged; sent sizes come from the
+ * producer statistics, which the Pulsar client refreshes every stats interval. The ratio
+ * therefore compares average message sizes rather than totals.
+ *
+ * @param messages     Number of acknowledged messages
+ * @param payloadBytes Serialized size of the acknowledged messages before compression
+ * @param sentMessages Number of messages reported sent by the producer
+ * @param sentBytes    Number of bytes reported sent by the producer, after compression
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public record CompressionStats(long messages, long payloadBytes, long sentMessages, long sentBytes) {
+
+    /**
+     * Average payload size divided by average sent size, 1 until both are known
+     */
+    public double ratio() {
+        if (messages == 0 || payloadBytes == 0 || sentMessages == 0 || sentBytes == 0) {
+            return 1.0;
+        }
+        return ((double) payloadBytes / messages) / ((double) sentBytes / sentMessages);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import org.apache.pulsar.client.api.TypedMessageBuilder;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Message builder recording
+ *
+ * <p>Captures the calls interceptors make on a message builder, such as added
+ * properties, while the producer is not available yet. Interceptors run on the
+ * sending thread with the message context of their message, and the calls are
+ * replayed onto the builder of that message once the producer exists; every message
+ * of a batch gets its own recording.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+final class MessageBuilderRecording implements InvocationHandler {
+
+    private final List<Invocation> invocations = new ArrayList<>();
+    private final TypedMessageBuilder<byte[]> builder;
+
+    @SuppressWarnings("unchecked")
+    MessageBuilderRecording() {
+        this.builder = (TypedMessageBuilder<byte[]>) Proxy.newProxyInstance(
+                TypedMessageBuilder.class.getClassLoader(), new Class<?>[]{TypedMessageBuilder.class}, this);
+    }
+
+    /**
+     * Builder recording the calls made on it
+     */
+    TypedMessageBuilder<byte[]> builder() {
+        return builder;
+    }
+
+    /**
+     * Apply the recorded calls to a message builder
+     */
+    void replay(TypedMessageBuilder<byte[]> target) {
+        for (Invocation invocation : invocations) {
+            try {
+                invocation.method.invoke(target, invocation.args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Failed to apply " + invocation.method.getName(), cause);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "MessageBuilderRecording" + invocations;
+            };
+        }
+        if (!TypedMessageBuilder.class.isAssignableFrom(method.getReturnType())) {
+            throw new UnsupportedOperationException(method.getName() + " is not supported while preparing a batch");
+        }
+        invocations.add(new Invocation(method, args));
+        return proxy;
+    }
+
+    private record Invocation(Method method, Object[] args) {
+        @Override
+        public String toString() {
+            return method.getName();
+        }
+    }
+}
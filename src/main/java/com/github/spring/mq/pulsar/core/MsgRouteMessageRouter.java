@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.github.spring.mq.pulsar.domain.MsgMetaKey;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageRouter;
+import org.apache.pulsar.client.api.TopicMetadata;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Message router routing by key or message route
+ *
+ * <p>Default router of producers configured with the {@code CustomPartition} routing
+ * mode. Keyed messages land on the partition of their key, so the keys of one route
+ * still spread over all partitions and keep their per-key order. Unkeyed messages
+ * carrying a message route (see
+ * {@link com.github.spring.mq.pulsar.core.TopicMessageSender#send(Object, String)}) land
+ * on the partition of their route, and the rest are spread round-robin.
+ *
+ * <p>Register a {@link MessageRouter} bean to route differently.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public class MsgRouteMessageRouter implements MessageRouter {
+
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    @Override
+    public int choosePartition(Message<?> msg, TopicMetadata metadata) {
+        int partitions = metadata.numPartitions();
+        if (partitions <= 1) {
+            return 0;
+        }
+        if (msg.hasKey()) {
+            return Math.floorMod(msg.getKey().hashCode(), partitions);
+        }
+        String route = msg.getProperty(MsgMetaKey.MSG_ROUTE.getCode());
+        if (route != null && !route.isEmpty()) {
+            return Math.floorMod(route.hashCode(), partitions);
+        }
+        return Math.floorMod(roundRobin.getAndIncrement(), partitions);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.spring.mq.pulsar.exception.PulsarConsumerNotExistException;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Message route resolver
+ *
+ * <p>Finds the message route of a JSON payload by streaming over its top-level
+ * fields. The parser stops at the first field whose name is a configured route key
+ * and whose string value is a known route; nested objects and arrays are skipped
+ * without being materialized, and no tree or intermediate String is built.
+ *
+ * <p>Instances are immutable and built once per listener container from the
+ * route to route key mapping of its handlers. Payloads are parsed as JSON unless the
+ * caller passes the factory of their format, e.g. Smile or CBOR.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public final class MsgRouteResolver {
+
+    private final JsonFactory jsonFactory;
+    /**
+     * key: route key field name
+     * value: routes that may appear in that field
+     */
+    private final Map<String, Set<String>> routesByKey;
+    /**
+     * Route returned without parsing when only one route is registered
+     */
+    private final String singleRoute;
+
+    private MsgRouteResolver(JsonFactory jsonFactory, Map<String, Set<String>> routesByKey, String singleRoute) {
+        this.jsonFactory = jsonFactory;
+        this.routesByKey = routesByKey;
+        this.singleRoute = singleRoute;
+    }
+
+    /**
+     * Build a resolver
+     *
+     * @param jsonFactory Factory used to create parsers of payloads without a factory of their own
+     * @param routeToKey  key: message route, value: name of the field carrying the route
+     */
+    public static MsgRouteResolver of(JsonFactory jsonFactory, Map<String, String> routeToKey) {
+        if (routeToKey.size() == 1) {
+            return new MsgRouteResolver(jsonFactory, Map.of(), routeToKey.keySet().iterator().next());
+        }
+        Map<String, Set<String>> routesByKey = new HashMap<>();
+        routeToKey.forEach((route, key) -> {
+            if (key != null) {
+                routesByKey.computeIfAbsent(key, k -> new HashSet<>()).add(route);
+            }
+        });
+        routesByKey.replaceAll((key, routes) -> Set.copyOf(routes));
+        return new MsgRouteResolver(jsonFactory, Map.copyOf(routesByKey), null);
+    }
+
+    /**
+     * Resolve the route of a message
+     *
+     * @param data Message payload
+     * @return Matching route, or an empty string if no route matches
+     * @throws PulsarConsumerNotExistException if the payload cannot be parsed
+     */
+    public String resolve(byte[] data) {
+        return resolve(data, jsonFactory);
+    }
+
+    /**
+     * Resolve the route of a payload of a given format
+     *
+     * @param data        Message payload
+     * @param jsonFactory Factory of the payload's format
+     * @return Matching route, or an empty string if no route matches
+     * @throws PulsarConsumerNotExistException if the payload cannot be parsed
+     */
+    public String resolve(byte[] data, JsonFactory jsonFactory) {
+        if (singleRoute != null) {
+            return singleRoute;
+        }
+        try (JsonParser parser = jsonFactory.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return "";
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Set<String> routes = routesByKey.get(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (routes != null && value == JsonToken.VALUE_STRING) {
+                    String route = parser.getText();
+                    if (routes.contains(route)) {
+                        return route;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return "";
+        } catch (Exception e) {
+            throw new PulsarConsumerNotExistException("explain handler mapping exception", e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.spring.mq.pulsar.exception.JacksonException;
+import org.springframework.util.ObjectUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Payload binding
+ *
+ * <p>Decodes message payloads into one target type. The {@link ObjectReader} for the
+ * type is resolved once when the binding is created, so listener containers build
+ * one binding per handler at registration time.
+ *
+ * <p>When a data key is configured, the payload is treated as an envelope: the parser
+ * streams over the top-level fields, skips everything before the data key and binds
+ * the target type directly from the token stream of that field. No intermediate
+ * {@code JsonNode} tree is built.
+ *
+ * <p>The payload is parsed with the factory of the mapper, so bindings of Jackson codecs
+ * for binary formats such as Smile or CBOR stream over those payloads alike. Objects and
+ * arrays under the data key are copied as JSON text into {@code String} targets and in the
+ * payload's own format into {@code byte[]} targets.
+ *
+ * @param <T> Target type
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public final class PayloadBinding<T> {
+
+    private final Class<T> type;
+    private final String dataKey;
+    private final ObjectReader reader;
+    /**
+     * Factory writing structured values into String targets, the mapper's own for JSON payloads
+     */
+    private final JsonFactory textFactory;
+
+    public PayloadBinding(ObjectMapper objectMapper, String dataKey, Class<T> type) {
+        this.type = type;
+        this.dataKey = ObjectUtils.isEmpty(dataKey) ? null : dataKey;
+        this.reader = objectMapper.readerFor(type);
+        JsonFactory factory = objectMapper.getFactory();
+        this.textFactory = JsonFactory.FORMAT_NAME_JSON.equals(factory.getFormatName()) ? factory : new JsonFactory();
+    }
+
+    /**
+     * Decode a payload
+     *
+     * @param data Message payload
+     * @return Decoded value
+     * @throws JacksonException if the payload cannot be decoded or the data key is missing
+     */
+    public T decode(byte[] data) {
+        try {
+            if (dataKey == null) {
+                return decodeWhole(data);
+            }
+            return decodeDataKey(data);
+        } catch (JacksonException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JacksonException("Failed to deserialize object", e);
+        }
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public String getDataKey() {
+        return dataKey;
+    }
+
+    private T decodeWhole(byte[] data) throws Exception {
+        // String 类型直接转换
+        if (type == String.class) {
+            return type.cast(new String(data, StandardCharsets.UTF_8));
+        }
+        // byte[] 类型直接返回
+        if (type == byte[].class) {
+            return type.cast(data);
+        }
+        // 基础类型的转换
+        return decodePrimitiveType(data);
+    }
+
+    private T decodeDataKey(byte[] data) throws Exception {
+        try (JsonParser parser = reader.createParser(data)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    JsonToken token = parser.nextToken();
+                    if (dataKey.equals(name)) {
+                        return bind(parser, token);
+                    }
+                    parser.skipChildren();
+                }
+            }
+        }
+        throw new JacksonException("Data key '" + dataKey + "' not found in message",
+                new IllegalArgumentException("Missing data key: " + dataKey));
+    }
+
+    /**
+     * Bind the value the parser is positioned on
+     */
+    @SuppressWarnings("unchecked")
+    private T bind(JsonParser parser, JsonToken token) throws Exception {
+        boolean structured = token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY;
+        // String 类型
+        if (type == String.class) {
+            if (structured) {
+                return (T) new String(copyStructure(parser, textFactory), StandardCharsets.UTF_8);
+            }
+            return (T) parser.getText();
+        }
+        // byte[] 类型
+        if (type == byte[].class) {
+            if (structured) {
+                return (T) copyStructure(parser, reader.getFactory());
+            }
+            return (T) parser.getText().getBytes(StandardCharsets.UTF_8);
+        }
+        // 基础类型和复杂对象
+        return reader.readValue(parser);
+    }
+
+    /**
+     * Copy the structure the parser is positioned on in the format of a factory
+     */
+    private byte[] copyStructure(JsonParser parser, JsonFactory factory) throws Exception {
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder();
+             JsonGenerator generator = factory.createGenerator(buffer)) {
+            generator.copyCurrentStructure(parser);
+            generator.flush();
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * Decode primitive types and wrapper types
+     */
+    @SuppressWarnings("unchecked")
+    private T decodePrimitiveType(byte[] data) throws Exception {
+        Class<T> clazz = type;
+        String strValue = new String(data, StandardCharsets.UTF_8).trim();
+
+        // Boolean 类型
+        if (clazz == Boolean.class || clazz == boolean.class) {
+            return (T) Boolean.valueOf(strValue);
+        }
+        // Integer 类型
+        if (clazz == Integer.class || clazz == int.class) {
+            return (T) Integer.valueOf(strValue);
+        }
+        // Long 类型
+        if (clazz == Long.class || clazz == long.class) {
+            return (T) Long.valueOf(strValue);
+        }
+        // Double 类型
+        if (clazz == Double.class || clazz == double.class) {
+            return (T) Double.valueOf(strValue);
+        }
+        // Float 类型
+        if (clazz == Float.class || clazz == float.class) {
+            return (T) Float.valueOf(strValue);
+        }
+        // Short 类型
+        if (clazz == Short.class || clazz == short.class) {
+            return (T) Short.valueOf(strValue);
+        }
+        // Byte 类型
+        if (clazz == Byte.class || clazz == byte.class) {
+            return (T) Byte.valueOf(strValue);
+        }
+        // Character 类型
+        if (clazz == Character.class || clazz == char.class) {
+            if (strValue.length() != 1) {
+                throw new IllegalArgumentException("Cannot convert string of length " + strValue.length() + " to char");
+            }
+        }
+
+        // 其他复杂类型使用 Jackson 反序列化
+        return reader.readValue(data);
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.github.spring.mq.pulsar.exception.PulsarProducerInitException;
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Producer cache
+ *
+ * <p>Caches one producer per topic, bounded by size and idle time. Producers are
+ * created asynchronously; callers {@link #acquire(String) acquire} a lease for the
+ * duration of a send, and only producers without outstanding leases are evicted, so
+ * a send never races with the close of its producer. Evicted producers are closed
+ * asynchronously and recreated on the next send to the topic.
+ *
+ * <p>When the cache is full the least recently used idle producer is evicted. If
+ * every producer is in use the cache temporarily grows beyond its maximum size.
+ *
+ * <p>Producers of other value types, such as producers of a Pulsar schema, share the
+ * size and idle bounds: they are {@link #acquire(String, Function) acquired} with a
+ * factory of their own under a key that identifies the value type.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public class ProducerCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProducerCache.class);
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Function<String, CompletableFuture<Producer<byte[]>>> factory;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final ScheduledExecutorService sweeper;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param factory     Creates the producer of a topic
+     * @param maxSize     Maximum number of cached producers, 0 for unbounded
+     * @param idleTimeout Time after which an unused producer is evicted, zero to keep idle producers
+     */
+    public ProducerCache(Function<String, CompletableFuture<Producer<byte[]>>> factory, int maxSize, Duration idleTimeout) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        if (idleTimeoutNanos > 0) {
+            long period = Math.max(1000, Math.min(idleTimeout.toMillis() / 2, 60_000));
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "pulsar-producer-cache-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    /**
+     * Acquire the producer of a topic, creating it if needed
+     *
+     * <p>The lease must be released once the send using the producer has completed.
+     */
+    public Lease acquire(String topic) {
+        return acquire(topic, factory);
+    }
+
+    /**
+     * Acquire a producer created by a factory of its own, creating it if needed
+     *
+     * <p>Used for producers whose value type is not {@code byte[]}; their lease is read
+     * with {@link Lease#typedProducer()}. The key must identify the value type, the
+     * factory is only called when no producer is cached under the key.
+     *
+     * @param key     Cache key, the topic followed by a value type qualifier
+     * @param factory Creates the producer from the key
+     */
+    public Lease acquire(String key, Function<String, ? extends CompletableFuture<? extends Producer<?>>> factory) {
+        while (true) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                Entry created = new Entry(key);
+                entry = entries.putIfAbsent(key, created);
+                if (entry == null) {
+                    misses.increment();
+                    create(created, factory);
+                    evictOverflow();
+                    return new Lease(created);
+                }
+            }
+            if (entry.retain()) {
+                hits.increment();
+                return new Lease(entry);
+            }
+            // Evicted concurrently, drop the stale mapping and retry
+            entries.remove(key, entry);
+        }
+    }
+
+    /**
+     * Whether the producer of a topic has been created and is cached
+     */
+    public boolean isReady(String topic) {
+        Entry entry = entries.get(topic);
+        return entry != null && entry.future.isDone() && !entry.future.isCompletedExceptionally();
+    }
+
+    /**
+     * Number of cached producers
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Cache hit, miss and eviction counts
+     */
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    /**
+     * Statistics of the created producers by topic
+     */
+    public Map<String, ProducerStats> getProducerStats() {
+        Map<String, ProducerStats> stats = new LinkedHashMap<>();
+        entries.forEach((topic, entry) -> {
+            Producer<?> producer = entry.future.getNow(null);
+            if (producer != null) {
+                stats.put(topic, producer.getStats());
+            }
+        });
+        return stats;
+    }
+
+    /**
+     * Payload and sent sizes of the created producers by topic
+     */
+    public Map<String, CompressionStats> getCompressionStats() {
+        Map<String, CompressionStats> stats = new LinkedHashMap<>();
+        entries.forEach((topic, entry) -> {
+            Producer<?> producer = entry.future.getNow(null);
+            if (producer != null) {
+                ProducerStats producerStats = producer.getStats();
+                stats.put(topic, new CompressionStats(entry.payloadMessages.sum(), entry.payloadBytes.sum(),
+                        producerStats.getTotalMsgsSent(), producerStats.getTotalBytesSent()));
+            }
+        });
+        return stats;
+    }
+
+    /**
+     * Evict producers that have been idle longer than the idle timeout
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Entry entry : entries.values()) {
+            if (now - entry.lastAccess >= idleTimeoutNanos) {
+                evict(entry);
+            }
+        }
+    }
+
+    /**
+     * Close all producers
+     */
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        entries.values().forEach(entry -> entry.future.thenAccept(producer -> {
+            try {
+                producer.close();
+            } catch (Exception e) {
+                // Ignore exception during shutdown
+            }
+        }));
+        entries.clear();
+    }
+
+    private void create(Entry entry, Function<String, ? extends CompletableFuture<? extends Producer<?>>> factory) {
+        CompletableFuture<? extends Producer<?>> creation;
+        try {
+            creation = factory.apply(entry.topic);
+        } catch (RuntimeException e) {
+            creation = CompletableFuture.failedFuture(e);
+        }
+        creation.whenComplete((producer, exception) -> {
+            if (exception == null) {
+                entry.future.complete(producer);
+                return;
+            }
+            // Failed creations are not cached, the next send retries
+            entries.remove(entry.topic, entry);
+            entry.future.completeExceptionally(exception instanceof CompletionException && exception.getCause() != null
+                    ? exception.getCause()
+                    : exception);
+        });
+    }
+
+    private void evictOverflow() {
+        if (maxSize <= 0) {
+            return;
+        }
+        while (entries.size() > maxSize) {
+            Entry eldest = entries.values().stream()
+                    .filter(entry -> entry.inFlight.get() == 0)
+                    .min(Comparator.comparingLong(entry -> entry.lastAccess))
+                    .orElse(null);
+            if (eldest == null || !evict(eldest)) {
+                return;
+            }
+        }
+    }
+
+    private boolean evict(Entry entry) {
+        if (!entry.inFlight.compareAndSet(0, -1)) {
+            return false;
+        }
+        entries.remove(entry.topic, entry);
+        evictions.increment();
+        logger.debug("Evicting producer of topic {}", entry.topic);
+        entry.future.thenAccept(producer -> producer.closeAsync().whenComplete((ignored, exception) -> {
+            if (exception != null) {
+                logger.warn("Failed to close evicted producer of topic {}", entry.topic, exception);
+            }
+        }));
+        return true;
+    }
+
+    /**
+     * Cache statistics
+     *
+     * @param hits      Number of acquisitions served by a cached producer
+     * @param misses    Number of acquisitions that created a producer
+     * @param evictions Number of producers evicted for size or idle time
+     * @param size      Number of cached producers
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    /**
+     * Use of a cached producer, keeps the producer from being evicted until released
+     */
+    public static final class Lease {
+
+        private final Entry entry;
+        private boolean released;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * Producer future, completes when the producer has been created
+         */
+        @SuppressWarnings("unchecked")
+        public CompletableFuture<Producer<byte[]>> producer() {
+            return (CompletableFuture<Producer<byte[]>>) (CompletableFuture<?>) entry.future;
+        }
+
+        /**
+         * Producer future of a lease acquired with a factory of its own, the caller
+         * knows the value type from the key it acquired
+         */
+        @SuppressWarnings("unchecked")
+        public <T> CompletableFuture<Producer<T>> typedProducer() {
+            return (CompletableFuture<Producer<T>>) (CompletableFuture<?>) entry.future;
+        }
+
+        /**
+         * Wait for the producer
+         *
+         * @throws PulsarProducerInitException if the producer cannot be created
+         */
+        public Producer<byte[]> get() {
+            try {
+                return producer().join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new PulsarProducerInitException("Failed to create producer for topic: " + entry.topic, e.getCause());
+            }
+        }
+
+        /**
+         * Record the payload size of an acknowledged message
+         */
+        public void recordPayload(int bytes) {
+            entry.payloadMessages.increment();
+            entry.payloadBytes.add(bytes);
+        }
+
+        /**
+         * Release the producer, may be called more than once
+         */
+        public synchronized void release() {
+            if (!released) {
+                released = true;
+                entry.release();
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final String topic;
+        private final CompletableFuture<Producer<?>> future = new CompletableFuture<>();
+        /**
+         * Number of outstanding leases, -1 once evicted
+         */
+        private final AtomicInteger inFlight = new AtomicInteger(1);
+        private final LongAdder payloadMessages = new LongAdder();
+        private final LongAdder payloadBytes = new LongAdder();
+        private volatile long lastAccess = System.nanoTime();
+
+        private Entry(String topic) {
+            this.topic = topic;
+        }
+
+        boolean retain() {
+            while (true) {
+                int count = inFlight.get();
+                if (count < 0) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(count, count + 1)) {
+                    lastAccess = System.nanoTime();
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            lastAccess = System.nanoTime();
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.github.spring.mq.pulsar.config.PulsarProperties;
+import com.github.spring.mq.pulsar.exception.PulsarProducerConfigException;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Producer configuration resolver
+ *
+ * <p>Resolves the producer configuration of a topic. The {@code topic} of a producer
+ * configuration is either an exact topic name or a rule matching many topics:
+ * <ul>
+ *   <li>a glob, where {@code *} matches any characters and {@code ?} a single one,
+ *       e.g. {@code orders-*}</li>
+ *   <li>a regular expression prefixed with {@code regex:}, e.g. {@code regex:tenant-\d+-events}</li>
+ * </ul>
+ *
+ * <p>Exact topics win over rules; among rules, globs are tried before regular expressions
+ * and longer literal parts before shorter ones. The index is built on first use and
+ * resolved configurations are memoized per topic, so lookups on the send path are a
+ * single map access.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public class ProducerConfigResolver {
+
+    /**
+     * Prefix of regular expression topic rules
+     */
+    public static final String REGEX_PREFIX = "regex:";
+
+    /**
+     * Maximum number of memoized topics, the memo is reset beyond it
+     */
+    private static final int MAX_RESOLVED = 10_000;
+
+    private final PulsarProperties pulsarProperties;
+    private final ConcurrentHashMap<String, PulsarProperties.Producer> resolved = new ConcurrentHashMap<>();
+    private volatile Index index;
+
+    public ProducerConfigResolver(PulsarProperties pulsarProperties) {
+        this.pulsarProperties = pulsarProperties;
+    }
+
+    /**
+     * Whether a configured topic is a rule rather than an exact topic name
+     */
+    public static boolean isPattern(String topic) {
+        return topic != null && (topic.startsWith(REGEX_PREFIX) || topic.indexOf('*') >= 0 || topic.indexOf('?') >= 0);
+    }
+
+    /**
+     * Resolve the producer configuration of a topic
+     *
+     * @throws PulsarProducerConfigException if no configuration matches the topic
+     */
+    public PulsarProperties.Producer resolve(String topic) {
+        if (!StringUtils.hasText(topic)) {
+            PulsarProperties.Producer producer = pulsarProperties.getProducer();
+            if (producer == null) {
+                throw new PulsarProducerConfigException("Failed to get producer config for topic: " + topic);
+            }
+            return producer;
+        }
+        PulsarProperties.Producer producer = resolved.get(topic);
+        if (producer != null) {
+            return producer;
+        }
+        producer = index().match(topic);
+        if (producer == null) {
+            throw new PulsarProducerConfigException("Failed to get producer config for topic: " + topic);
+        }
+        if (resolved.size() >= MAX_RESOLVED) {
+            resolved.clear();
+        }
+        resolved.put(topic, producer);
+        return producer;
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = new Index(configurations());
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Configurations to index, the producer map if present, otherwise the default producer
+     */
+    private Collection<PulsarProperties.Producer> configurations() {
+        Map<String, PulsarProperties.Producer> producerMap = pulsarProperties.getProducerMap();
+        if (producerMap != null && !producerMap.isEmpty()) {
+            return producerMap.values();
+        }
+        PulsarProperties.Producer producer = pulsarProperties.getProducer();
+        return producer == null ? List.of() : List.of(producer);
+    }
+
+    /**
+     * Exact topics and rules
+     */
+    private static final class Index {
+
+        private final Map<String, PulsarProperties.Producer> exact = new HashMap<>();
+        private final List<Rule> rules = new ArrayList<>();
+
+        Index(Collection<PulsarProperties.Producer> configurations) {
+            for (PulsarProperties.Producer producer : configurations) {
+                String topic = producer.getTopic();
+                if (!StringUtils.hasText(topic)) {
+                    continue;
+                }
+                if (!isPattern(topic)) {
+                    exact.putIfAbsent(topic, producer);
+                } else if (topic.startsWith(REGEX_PREFIX)) {
+                    rules.add(new Rule(Pattern.compile(topic.substring(REGEX_PREFIX.length())), true, 0, producer));
+                } else {
+                    rules.add(new Rule(globToPattern(topic), false, topic.replaceAll("[*?]", "").length(), producer));
+                }
+            }
+            rules.sort(Comparator.comparing(Rule::regex).thenComparing(Comparator.comparingInt(Rule::literalLength).reversed()));
+        }
+
+        PulsarProperties.Producer match(String topic) {
+            PulsarProperties.Producer producer = exact.get(topic);
+            if (producer != null) {
+                return producer;
+            }
+            for (Rule rule : rules) {
+                if (rule.pattern.matcher(topic).matches()) {
+                    return rule.producer;
+                }
+            }
+            return null;
+        }
+
+        private static Pattern globToPattern(String glob) {
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            for (char c : glob.toCharArray()) {
+                if (c == '*' || c == '?') {
+                    if (!literal.isEmpty()) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    regex.append(c == '*' ? ".*" : ".");
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (!literal.isEmpty()) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+            return Pattern.compile(regex.toString());
+        }
+    }
+
+    private record Rule(Pattern pattern, boolean regex, int literalLength, PulsarProperties.Producer producer) {
+    }
+}
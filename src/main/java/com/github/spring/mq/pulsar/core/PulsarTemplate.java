@@ -24,29 +24,39 @@
 
 package com.github.spring.mq.pulsar.core;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.spring.mq.pulsar.codec.CodecBinding;
+import com.github.spring.mq.pulsar.codec.EncodeBuffer;
+import com.github.spring.mq.pulsar.codec.EncodeBufferPool;
+import com.github.spring.mq.pulsar.codec.MessageCodec;
+import com.github.spring.mq.pulsar.codec.MessageCodecRegistry;
 import com.github.spring.mq.pulsar.config.PulsarInterceptorConfiguration;
 import com.github.spring.mq.pulsar.config.PulsarProperties;
-import com.github.spring.mq.pulsar.domain.ListenerType;
 import com.github.spring.mq.pulsar.domain.MsgContext;
+import com.github.spring.mq.pulsar.domain.MsgMetaKey;
 import com.github.spring.mq.pulsar.exception.*;
 import com.github.spring.mq.pulsar.interceptor.PulsarMessageInterceptor;
 import com.github.spring.mq.pulsar.listener.DeadLetterListenerContainer;
 import com.github.spring.mq.pulsar.listener.DeadLetterMessageProcessor;
-import com.github.spring.mq.pulsar.listener.PulsarListenerContainer;
+import com.github.spring.mq.pulsar.listener.ListenerScheduler;
 import io.micrometer.tracing.Tracer;
 import org.apache.logging.log4j.Logger;
 import org.apache.pulsar.client.api.*;
-import org.apache.pulsar.client.impl.MultiTopicsConsumerImpl;
-import org.springframework.util.ObjectUtils;
+import org.apache.pulsar.common.schema.SchemaInfo;
+import org.springframework.beans.BeanUtils;
 import org.springframework.util.StringUtils;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 /**
  * Pulsar operations template class
@@ -65,6 +75,17 @@ import java.util.concurrent.TimeUnit;
  */
 public final class PulsarTemplate {
 
+    /**
+     * Cache key suffix of the compressing producer of a topic with adaptive compression
+     */
+    private static final String COMPRESSED_SUFFIX = "::compressed";
+    private static final String CHUNKED_SUFFIX = "::chunked";
+    private static final String SYNC_SUFFIX = "::sync";
+    /**
+     * Marker of schema producer cache keys, followed by the schema type and definition
+     */
+    private static final String SCHEMA_MARKER = "::schema:";
+
     private final Logger logger = org.apache.logging.log4j.LogManager.getLogger(PulsarTemplate.class);
 
     private final PulsarClient pulsarClient;
@@ -72,11 +93,35 @@ public final class PulsarTemplate {
     private final ObjectMapper objectMapper;
     private final DeadLetterMessageProcessor deadLetterMessageProcessor;
     private final Tracer tracer;
-    private final ConcurrentHashMap<String, Producer<byte[]>> producerCache = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Consumer<byte[]>> consumerCache = new ConcurrentHashMap<>();
+    private final ProducerCache producerCache;
+    private final ProducerConfigResolver producerConfigResolver;
+    /**
+     * Consumers by topic, a pending future while the consumer is subscribing
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Consumer<byte[]>>> consumerCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<BindingKey, CodecBinding<?>> codecBindingCache = new ConcurrentHashMap<>();
+    /**
+     * Message types and data keys whose Jackson readers and writers have been warmed up
+     */
+    private final Set<BindingKey> warmedUpTypes = ConcurrentHashMap.newKeySet();
     private final List<DeadLetterListenerContainer> deadLetterListenerContainers = new ArrayList<>();
+    private final List<CompletableFuture<?>> deadLetterSubscriptions = new ArrayList<>();
+    /**
+     * Dead letter topics with a listener, resubscribed consumers of a topic share its dead letter listener
+     */
+    private final Set<String> deadLetterTopics = new HashSet<>();
+    private boolean deadLetterListenersStarted;
+    private boolean deadLetterListenersClosed;
+    private final ListenerScheduler listenerScheduler;
 
     private PulsarInterceptorConfiguration.PulsarInterceptorRegistry interceptorRegistry;
+    private MessageRouter messageRouter = new MsgRouteMessageRouter();
+    private volatile MessageCodecRegistry codecRegistry;
+    /**
+     * Reusable encode buffers, a warmed-up buffer leaves the payload copy as the only allocation of an encoding
+     */
+    private final EncodeBufferPool encodeBuffers = new EncodeBufferPool(
+            Math.max(4, Runtime.getRuntime().availableProcessors() * 2), 1024, 1024 * 1024);
 
     public PulsarTemplate(PulsarClient pulsarClient,
                           PulsarProperties pulsarProperties,
@@ -88,12 +133,33 @@ public final class PulsarTemplate {
         this.objectMapper = objectMapper;
         this.deadLetterMessageProcessor = deadLetterMessageProcessor;
         this.tracer = tracer;
+        PulsarProperties.Listener listener = pulsarProperties.getListener();
+        this.listenerScheduler = new ListenerScheduler(listener.getSchedulerThreads(), listener.isVirtualThreads());
+        this.producerConfigResolver = new ProducerConfigResolver(pulsarProperties);
+        PulsarProperties.ProducerCache cache = pulsarProperties.getProducerCache();
+        this.producerCache = new ProducerCache(this::createProducer, cache.getMaxSize(), cache.getIdleTimeout());
+        this.codecRegistry = new MessageCodecRegistry(objectMapper);
     }
 
     public void setInterceptorRegistry(PulsarInterceptorConfiguration.PulsarInterceptorRegistry interceptorRegistry) {
         this.interceptorRegistry = interceptorRegistry;
     }
 
+    /**
+     * Router of producers using the {@code CustomPartition} routing mode, routes by key or message route by default
+     */
+    public void setMessageRouter(MessageRouter messageRouter) {
+        this.messageRouter = messageRouter;
+    }
+
+    /**
+     * Message codecs used besides the built-in ones, see {@link MessageCodecRegistry}
+     */
+    public void setMessageCodecs(List<? extends MessageCodec> messageCodecs) {
+        this.codecRegistry = new MessageCodecRegistry(objectMapper, messageCodecs);
+        this.codecBindingCache.clear();
+    }
+
     /**
      * Send message synchronously
      */
@@ -114,24 +180,33 @@ public final class PulsarTemplate {
 
         MessageId messageId = null;
         Exception sendException = null;
+        ProducerCache.Lease lease = null;
 
         try {
-            Producer<byte[]> producer = getOrCreateProducer(topic);
+            MessageCodec codec = getEncoder(topic, interceptedMessage);
+            byte[] value = encode(codec, interceptedMessage);
+            lease = acquireProducer(topic, value.length, true);
+            Producer<byte[]> producer = lease.get();
             TypedMessageBuilder<byte[]> messageBuilder = producer.newMessage()
-                    .value(serialize(interceptedMessage));
+                    .value(value);
 
             if (StringUtils.hasText(key)) {
                 messageBuilder.key(key);
             }
+            messageBuilder.property(MsgMetaKey.CONTENT_TYPE.getCode(), codec.getContentType());
 
             applyBeforeHandleSendMessageInterceptors(messageBuilder);
 
-            messageId = messageBuilder.send();
+            messageId = sendBlocking(topic, producer, messageBuilder);
+            lease.recordPayload(value.length);
             return messageId;
         } catch (Exception e) {
             sendException = e;
             throw e;
         } finally {
+            if (lease != null) {
+                lease.release();
+            }
             // Execute after-send interceptors
             applyAfterSendInterceptors(topic, interceptedMessage, messageId, sendException);
         }
@@ -172,25 +247,34 @@ public final class PulsarTemplate {
 
         MessageId messageId = null;
         Exception sendException = null;
+        ProducerCache.Lease lease = null;
 
         try {
-            Producer<byte[]> producer = getOrCreateProducer(topic);
+            MessageCodec codec = getEncoder(topic, interceptedMessage);
+            byte[] value = encode(codec, interceptedMessage);
+            lease = acquireProducer(topic, value.length, true);
+            Producer<byte[]> producer = lease.get();
             TypedMessageBuilder<byte[]> messageBuilder = producer.newMessage()
-                    .value(serialize(interceptedMessage))
+                    .value(value)
                     .deliverAfter(delay, unit);
 
             if (StringUtils.hasText(key)) {
                 messageBuilder.key(key);
             }
+            messageBuilder.property(MsgMetaKey.CONTENT_TYPE.getCode(), codec.getContentType());
 
             applyBeforeHandleSendMessageInterceptors(messageBuilder);
 
-            messageId = messageBuilder.send();
+            messageId = sendBlocking(topic, producer, messageBuilder);
+            lease.recordPayload(value.length);
             return messageId;
         } catch (Exception e) {
             sendException = e;
             throw e;
         } finally {
+            if (lease != null) {
+                lease.release();
+            }
             // Execute after-send interceptors
             applyAfterSendInterceptors(topic, interceptedMessage, messageId, sendException);
         }
@@ -217,25 +301,34 @@ public final class PulsarTemplate {
 
         MessageId messageId = null;
         Exception sendException = null;
+        ProducerCache.Lease lease = null;
 
         try {
-            Producer<byte[]> producer = getOrCreateProducer(topic);
+            MessageCodec codec = getEncoder(topic, interceptedMessage);
+            byte[] value = encode(codec, interceptedMessage);
+            lease = acquireProducer(topic, value.length, true);
+            Producer<byte[]> producer = lease.get();
             TypedMessageBuilder<byte[]> messageBuilder = producer.newMessage()
-                    .value(serialize(interceptedMessage))
+                    .value(value)
                     .deliverAt(timestamp);
 
             if (StringUtils.hasText(key)) {
                 messageBuilder.key(key);
             }
+            messageBuilder.property(MsgMetaKey.CONTENT_TYPE.getCode(), codec.getContentType());
 
             applyBeforeHandleSendMessageInterceptors(messageBuilder);
 
-            messageId = messageBuilder.send();
+            messageId = sendBlocking(topic, producer, messageBuilder);
+            lease.recordPayload(value.length);
             return messageId;
         } catch (Exception e) {
             sendException = e;
             throw e;
         } finally {
+            if (lease != null) {
+                lease.release();
+            }
             // Execute after-send interceptors
             applyAfterSendInterceptors(topic, interceptedMessage, messageId, sendException);
         }
@@ -261,342 +354,1044 @@ public final class PulsarTemplate {
             return future;
         }
 
+        ProducerCache.Lease lease = null;
         try {
-            Producer<byte[]> producer = getOrCreateProducer(topic);
-            TypedMessageBuilder<byte[]> messageBuilder = producer.newMessage()
-                    .value(serialize(interceptedMessage));
-
-            if (StringUtils.hasText(key)) {
-                messageBuilder.key(key);
+            MessageCodec codec = getEncoder(topic, interceptedMessage);
+            byte[] value = encode(codec, interceptedMessage);
+            lease = acquireProducer(topic, value.length);
+            CompletableFuture<Producer<byte[]>> producerFuture = lease.producer();
+            CompletableFuture<MessageId> sendFuture;
+            if (producerFuture.isDone() && !producerFuture.isCompletedExceptionally()) {
+                sendFuture = newMessage(producerFuture.join(), value, codec.getContentType(), key, null).sendAsync();
+            } else {
+                // Interceptors read thread-bound context, record them now and apply once the producer exists
+                MessageBuilderRecording recording = new MessageBuilderRecording();
+                applyBeforeHandleSendMessageInterceptors(recording.builder());
+                sendFuture = producerFuture.thenCompose(producer -> newMessage(producer, value, codec.getContentType(), key, recording).sendAsync());
             }
+            ProducerCache.Lease acquired = lease;
+            return sendFuture.whenComplete((messageId, exception) -> {
+                if (exception == null) {
+                    acquired.recordPayload(value.length);
+                }
+                acquired.release();
+                // Execute after-send interceptors
+                applyAfterSendInterceptors(topic, interceptedMessage, messageId, exception);
+            });
+        } catch (Exception e) {
+            if (lease != null) {
+                lease.release();
+            }
+            // Execute after-send interceptors
+            applyAfterSendInterceptors(topic, message, null, e);
+            CompletableFuture<MessageId> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
 
+    /**
+     * Build a message, applying message builder interceptors directly or from a recording
+     */
+    private TypedMessageBuilder<byte[]> newMessage(Producer<byte[]> producer, byte[] value, String contentType,
+                                                   String key, MessageBuilderRecording recording) {
+        TypedMessageBuilder<byte[]> messageBuilder = producer.newMessage().value(value);
+        if (StringUtils.hasText(key)) {
+            messageBuilder.key(key);
+        }
+        messageBuilder.property(MsgMetaKey.CONTENT_TYPE.getCode(), contentType);
+        if (recording == null) {
             applyBeforeHandleSendMessageInterceptors(messageBuilder);
+        } else {
+            recording.replay(messageBuilder);
+        }
+        return messageBuilder;
+    }
 
-            return messageBuilder.sendAsync()
+    /**
+     * Send message synchronously with a Pulsar schema
+     *
+     * <p>The message is encoded by the schema instead of a message codec, so the broker registers
+     * the schema of the topic and rejects producers with incompatible schemas. Schema producers are
+     * cached by topic and schema in the producer cache next to the byte[] producers, sharing its size
+     * and idle bounds, and take their settings from the producer configuration of the topic; adaptive
+     * compression, chunking and sync send modes only apply to the byte[] path.
+     *
+     * @param topic   Topic name
+     * @param key     Message key, may be null
+     * @param message Message value
+     * @param schema  Pulsar schema of the value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> MessageId send(String topic, String key, T message, Schema<T> schema) throws PulsarClientException {
+        // Execute before-send interceptors
+        Object interceptedMessage = applyBeforeSendInterceptors(topic, message);
+        if (interceptedMessage == null) {
+            // Interceptor returned null, do not send message
+            return null;
+        }
+
+        MessageId messageId = null;
+        Exception sendException = null;
+        ProducerCache.Lease lease = null;
+        try {
+            lease = acquireSchemaProducer(topic, schema);
+            Producer<T> producer;
+            try {
+                producer = lease.<T>typedProducer().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException
+                        : new PulsarProducerInitException("Failed to create producer for topic: " + topic, e.getCause());
+            }
+            messageId = newMessage(producer, (T) interceptedMessage, key, null).send();
+            return messageId;
+        } catch (Exception e) {
+            sendException = e;
+            throw e;
+        } finally {
+            if (lease != null) {
+                lease.release();
+            }
+            // Execute after-send interceptors
+            applyAfterSendInterceptors(topic, interceptedMessage, messageId, sendException);
+        }
+    }
+
+    /**
+     * Send message asynchronously with a Pulsar schema
+     *
+     * @param topic   Topic name
+     * @param key     Message key, may be null
+     * @param message Message value
+     * @param schema  Pulsar schema of the value
+     * @see #send(String, String, Object, Schema)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<MessageId> sendAsync(String topic, String key, T message, Schema<T> schema) {
+        // Execute before-send interceptors
+        Object interceptedMessage = applyBeforeSendInterceptors(topic, message);
+        if (interceptedMessage == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        ProducerCache.Lease lease = null;
+        try {
+            // Interceptors read thread-bound context, record them now and apply once the producer exists
+            MessageBuilderRecording recording = new MessageBuilderRecording();
+            applyBeforeHandleSendMessageInterceptors(recording.builder());
+            lease = acquireSchemaProducer(topic, schema);
+            ProducerCache.Lease acquired = lease;
+            return lease.<T>typedProducer()
+                    .thenCompose(producer -> newMessage(producer, (T) interceptedMessage, key, recording).sendAsync())
                     .whenComplete((messageId, exception) -> {
+                        acquired.release();
                         // Execute after-send interceptors
                         applyAfterSendInterceptors(topic, interceptedMessage, messageId, exception);
                     });
         } catch (Exception e) {
+            if (lease != null) {
+                lease.release();
+            }
             // Execute after-send interceptors
             applyAfterSendInterceptors(topic, message, null, e);
-            CompletableFuture<MessageId> future = new CompletableFuture<>();
-            future.completeExceptionally(e);
-            return future;
+            return CompletableFuture.failedFuture(e);
         }
     }
 
+    /**
+     * Build a message of a schema producer
+     *
+     * <p>Message builder interceptors see the builder as a byte[] builder; they set keys and
+     * properties, the value is already set by then.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> TypedMessageBuilder<T> newMessage(Producer<T> producer, T value, String key,
+                                                  MessageBuilderRecording recording) {
+        TypedMessageBuilder<T> messageBuilder = producer.newMessage().value(value);
+        if (StringUtils.hasText(key)) {
+            messageBuilder.key(key);
+        }
+        TypedMessageBuilder<byte[]> bytesView = (TypedMessageBuilder<byte[]>) (TypedMessageBuilder<?>) messageBuilder;
+        if (recording == null) {
+            applyBeforeHandleSendMessageInterceptors(bytesView);
+        } else {
+            recording.replay(bytesView);
+        }
+        return messageBuilder;
+    }
+
+    /**
+     * Get or create the consumer for a consumer configuration, blocking until subscribed
+     *
+     * @param consumerNameAnno Consumer name, a random name is used if empty
+     * @param consumer         Consumer configuration
+     * @param messageListener  Listener for EVENT mode, null for LOOP mode
+     * @see #getOrCreateConsumerAsync(String, PulsarProperties.Consumer, MessageListener)
+     */
     public Consumer<byte[]> getOrCreateConsumer(String consumerNameAnno,
                                                 PulsarProperties.Consumer consumer,
-                                                ListenerType listenerType,
-                                                Map<String, PulsarListenerContainer> listenerContainers) {
+                                                MessageListener<byte[]> messageListener) {
+        try {
+            return getOrCreateConsumerAsync(consumerNameAnno, consumer, messageListener).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new PulsarConsumeInitException("Failed to create consumer for topic: " + consumer.getTopic(), e.getCause());
+        }
+    }
+
+    /**
+     * Get or create the consumer for a consumer configuration without blocking
+     *
+     * <p>Consumers with a message listener are subscribed paused so no message is delivered
+     * before the listener is ready; delivery starts with {@link Consumer#resume()}, which the
+     * listener container calls when it starts. The dead letter consumer of the configuration,
+     * if any, is subscribed alongside and started by {@link #startDeadLetterListeners()}.
+     *
+     * @param consumerNameAnno Consumer name, a random name is used if empty
+     * @param consumer         Consumer configuration
+     * @param messageListener  Listener for EVENT mode, null for LOOP mode
+     */
+    public CompletableFuture<Consumer<byte[]>> getOrCreateConsumerAsync(String consumerNameAnno,
+                                                                        PulsarProperties.Consumer consumer,
+                                                                        MessageListener<byte[]> messageListener) {
+        return getOrCreateConsumerAsync(consumerNameAnno, consumer, messageListener, null);
+    }
 
-        return consumerCache.computeIfAbsent(consumer.getTopic(), t -> {
-            String consumerName = StringUtils.hasText(consumerNameAnno) ? consumerNameAnno :
-                    UUID.randomUUID().toString().replace("-", "").toLowerCase();
+    /**
+     * Get or create the consumer for a consumer configuration, subscribing with a Pulsar schema
+     *
+     * <p>Subscribing with the schema lets the broker check it against the schema of the topic,
+     * and the client registers the provider of the topic's schema versions on the schema
+     * instance, so that instance decodes messages written with any version of the schema.
+     * Messages are still handed out with their payload: read it with {@link Message#getData()}
+     * and decode it with the schema, {@link Message#getValue()} must not be used. The schema only
+     * applies when the consumer is subscribed, a cached consumer of the topic is returned as is.
+     *
+     * @param consumerNameAnno Consumer name, a random name is used if empty
+     * @param consumer         Consumer configuration
+     * @param messageListener  Listener for EVENT mode, null for LOOP mode
+     * @param schema           Pulsar schema to subscribe with, null to subscribe without a schema
+     * @see #getOrCreateConsumerAsync(String, PulsarProperties.Consumer, MessageListener)
+     */
+    public CompletableFuture<Consumer<byte[]>> getOrCreateConsumerAsync(String consumerNameAnno,
+                                                                        PulsarProperties.Consumer consumer,
+                                                                        MessageListener<byte[]> messageListener,
+                                                                        Schema<?> schema) {
+        String topic = consumer.getTopic();
+        CompletableFuture<Consumer<byte[]>> future = consumerCache.get(topic);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<Consumer<byte[]>> created = new CompletableFuture<>();
+        future = consumerCache.putIfAbsent(topic, created);
+        if (future != null) {
+            return future;
+        }
 
-            try {
-                ConsumerBuilder<byte[]> consumerBuilder = pulsarClient.newConsumer()
-                        .topic("persistent://" + consumer.getTopic())
-                        .subscriptionType(SubscriptionType.valueOf(consumer.getSubscriptionType()))
-                        .subscriptionName(StringUtils.hasText(consumer.getSubscriptionName())
-                                ? consumer.getSubscriptionName()
-                                : pulsarProperties.getConsumer().getSubscriptionName())
-                        .subscriptionInitialPosition(SubscriptionInitialPosition.valueOf(consumer.getSubscriptionInitialPosition()))
-                        .consumerName(consumerName)
-                        .ackTimeout(consumer.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS)
-                        .receiverQueueSize(consumer.getReceiverQueueSize())
-                        .negativeAckRedeliveryDelay(consumer.getNegativeAckRedeliveryDelay(), TimeUnit.MILLISECONDS)
-                        .autoAckOldestChunkedMessageOnQueueFull(consumer.isAutoAckOldestChunkedMessageOnQueueFull());
-
-                if (StringUtils.hasText(consumer.getRetryTopic())
-                        || StringUtils.hasText(consumer.getDeadTopic())) {
-                    DeadLetterPolicy.DeadLetterPolicyBuilder deadLetterPolicyBuilder = DeadLetterPolicy.builder();
-                    if (org.apache.commons.lang3.StringUtils.isNotBlank(consumer.getRetryTopic())) {
-                        deadLetterPolicyBuilder
-                                // Can specify maximum retry count, after 3 retries, messages enter dead letter queue
-                                .maxRedeliverCount(consumer.getRetryTime())
-                                // Specify retry queue
-                                .retryLetterTopic("persistent://" + consumer.getRetryTopic());
-
-                        consumerBuilder// Enable retry strategy
-                                .enableRetry(true);
-                    }
-                    if (org.apache.commons.lang3.StringUtils.isNotBlank(consumer.getDeadTopic())) {
-                        // Specify dead letter queue
-                        deadLetterPolicyBuilder.deadLetterTopic("persistent://" + consumer.getDeadTopic());
-                        buildDeadLetterConsumer(consumer.getDeadTopic(), consumer.getDeadTopicSubscriptionName());
-                    }
-                    consumerBuilder.deadLetterPolicy(deadLetterPolicyBuilder.build());
+        String consumerName = StringUtils.hasText(consumerNameAnno) ? consumerNameAnno :
+                UUID.randomUUID().toString().replace("-", "").toLowerCase();
+        try {
+            ConsumerBuilder<byte[]> consumerBuilder = (schema == null ? pulsarClient.newConsumer() : newPayloadConsumer(schema))
+                    .topic("persistent://" + consumer.getTopic())
+                    .subscriptionType(SubscriptionType.valueOf(consumer.getSubscriptionType()))
+                    .subscriptionName(StringUtils.hasText(consumer.getSubscriptionName())
+                            ? consumer.getSubscriptionName()
+                            : pulsarProperties.getConsumer().getSubscriptionName())
+                    .subscriptionInitialPosition(SubscriptionInitialPosition.valueOf(consumer.getSubscriptionInitialPosition()))
+                    .consumerName(consumerName)
+                    .ackTimeout(consumer.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .receiverQueueSize(consumer.getReceiverQueueSize())
+                    .negativeAckRedeliveryDelay(consumer.getNegativeAckRedeliveryDelay(), TimeUnit.MILLISECONDS)
+                    .maxPendingChunkedMessage(consumer.getMaxPendingChunkedMessage())
+                    .autoAckOldestChunkedMessageOnQueueFull(consumer.isAutoAckOldestChunkedMessageOnQueueFull())
+                    .expireTimeOfIncompleteChunkedMessage(consumer.getExpireTimeOfIncompleteChunkedMessage().toMillis(), TimeUnit.MILLISECONDS)
+                    .batchReceivePolicy(BatchReceivePolicy.builder()
+                            .maxNumMessages(consumer.getBatch().getMaxMessages())
+                            .maxNumBytes(consumer.getBatch().getMaxBytes())
+                            .timeout((int) consumer.getBatch().getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                            .build());
+
+            if (StringUtils.hasText(consumer.getRetryTopic())
+                    || StringUtils.hasText(consumer.getDeadTopic())) {
+                DeadLetterPolicy.DeadLetterPolicyBuilder deadLetterPolicyBuilder = DeadLetterPolicy.builder();
+                if (org.apache.commons.lang3.StringUtils.isNotBlank(consumer.getRetryTopic())) {
+                    deadLetterPolicyBuilder
+                            // Can specify maximum retry count, after 3 retries, messages enter dead letter queue
+                            .maxRedeliverCount(consumer.getRetryTime())
+                            // Specify retry queue
+                            .retryLetterTopic("persistent://" + consumer.getRetryTopic());
+
+                    consumerBuilder// Enable retry strategy
+                            .enableRetry(true);
                 }
-                if (ListenerType.EVENT.equals(listenerType)) {
-                    consumerBuilder.messageListener(new MessageListener<byte[]>() {
-                        @Override
-                        public void received(Consumer<byte[]> consumer, Message<byte[]> msg) {
-                            buildListener(consumer, msg, listenerContainers);
-                        }
-
-                        @Override
-                        public void reachedEndOfTopic(Consumer<byte[]> consumer) {
-                            MessageListener.super.reachedEndOfTopic(consumer);
-                        }
-                    });
+                if (org.apache.commons.lang3.StringUtils.isNotBlank(consumer.getDeadTopic())) {
+                    // Specify dead letter queue
+                    deadLetterPolicyBuilder.deadLetterTopic("persistent://" + consumer.getDeadTopic());
+                    buildDeadLetterConsumer(consumer.getDeadTopic(), consumer.getDeadTopicSubscriptionName());
                 }
+                consumerBuilder.deadLetterPolicy(deadLetterPolicyBuilder.build());
+            }
+            if (messageListener != null) {
+                consumerBuilder.messageListener(messageListener)
+                        .startPaused(true);
+            }
 
-                return consumerBuilder.subscribe();
-            } catch (PulsarClientException e) {
-                throw new PulsarConsumeInitException("Failed to create consumer for topic: " + consumer.getTopic(), e);
+            consumerBuilder.subscribeAsync().whenComplete((subscribed, exception) -> {
+                if (exception == null) {
+                    created.complete(subscribed);
+                    return;
+                }
+                consumerCache.remove(topic, created);
+                created.completeExceptionally(new PulsarConsumeInitException(
+                        "Failed to create consumer for topic: " + topic, unwrap(exception)));
+            });
+        } catch (RuntimeException e) {
+            consumerCache.remove(topic, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * Consumer builder of a schema whose messages are only read as payloads
+     *
+     * @see #getOrCreateConsumerAsync(String, PulsarProperties.Consumer, MessageListener, Schema)
+     */
+    @SuppressWarnings("unchecked")
+    private ConsumerBuilder<byte[]> newPayloadConsumer(Schema<?> schema) {
+        return (ConsumerBuilder<byte[]>) (ConsumerBuilder<?>) pulsarClient.newConsumer(schema);
+    }
+
+    /**
+     * Forget the cached consumer of a topic once its owner has closed it, so that the next
+     * {@link #getOrCreateConsumerAsync} subscribes a new consumer
+     *
+     * @param topic Topic of the consumer configuration
+     */
+    public void removeConsumer(String topic) {
+        consumerCache.remove(topic);
+    }
+
+    /**
+     * Send a collection of messages
+     *
+     * @return Per-message IDs and failures
+     * @throws PulsarProducerInitException if the producer cannot be created
+     */
+    public BatchSendResult sendBatch(String topic, Collection<?> messages) {
+        return sendBatch(topic, messages, null);
+    }
+
+    /**
+     * Send a collection of messages with keys
+     *
+     * @param keyExtractor Derives the message key, may be null
+     * @return Per-message IDs and failures
+     * @throws PulsarProducerInitException if the producer cannot be created
+     */
+    public <T> BatchSendResult sendBatch(String topic, Collection<T> messages, Function<? super T, String> keyExtractor) {
+        try {
+            return sendBatchAsync(topic, messages, keyExtractor).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PulsarProducerSendException("Interrupted while sending batch to topic: " + topic, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
-        });
+            throw new PulsarProducerSendException("Failed to send batch to topic: " + topic, e.getCause());
+        }
     }
 
     /**
-     * Build listener
+     * Send a collection of messages asynchronously
      */
-    private void buildListener(Consumer<byte[]> consumer, Message<byte[]> message,
-                               Map<String, PulsarListenerContainer> listenerContainers) {
-        Map<String, String> topicUrlMap = new HashMap<>();
-        pulsarProperties.getConsumerMap().forEach((key, value) -> {
-            topicUrlMap.put(value.getTopic(), key);
-            topicUrlMap.put(value.getRetryTopic(), key);
-        });
+    public CompletableFuture<BatchSendResult> sendBatchAsync(String topic, Collection<?> messages) {
+        return sendBatchAsync(topic, messages, null);
+    }
 
-        if (consumer instanceof MultiTopicsConsumerImpl) {
-            List<String> partitionedTopics = ((MultiTopicsConsumerImpl) consumer).getPartitionedTopics();
-            if (partitionedTopics != null && !partitionedTopics.isEmpty()) {
-                String topic = partitionedTopics.get(0);
-                topic = topic.replace("persistent://", "");
-                topic = topicUrlMap.get(topic.trim());
-                PulsarListenerContainer container = listenerContainers.get(topic);
-                if (container != null) {
-                    container.processMessage(consumer, message);
+    /**
+     * Send a collection of messages asynchronously with keys
+     *
+     * <p>The producer is resolved once and all messages are pipelined through
+     * {@code sendAsync} followed by a single flush. Interceptors run per message:
+     * message builder interceptors run right after the message's before-send
+     * interceptors, so they see the context those set up, and their calls (e.g. added
+     * properties) are replayed once the producer exists. The message context is
+     * cleared once when all messages have been queued. If the producer cannot be
+     * created, the after-send interceptors see the failure for every message and the
+     * returned future fails.
+     *
+     * @param keyExtractor Derives the message key, may be null
+     * @return Per-message IDs and failures, completes when every message has been
+     * acknowledged or has failed
+     */
+    public <T> CompletableFuture<BatchSendResult> sendBatchAsync(String topic,
+                                                                 Collection<T> messages,
+                                                                 Function<? super T, String> keyExtractor) {
+        ProducerCache.Lease lease = null;
+        try {
+            int size = messages.size();
+            MessageId[] messageIds = new MessageId[size];
+            Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+            List<PreparedMessage> prepared = new ArrayList<>(size);
+            int index = 0;
+            for (T message : messages) {
+                int position = index++;
+                Object interceptedMessage = applyBeforeSendInterceptors(topic, message);
+                if (interceptedMessage == null) {
+                    continue;
+                }
+                try {
+                    MessageCodec codec = getEncoder(topic, interceptedMessage);
+                    byte[] value = encode(codec, interceptedMessage);
+                    checkMessageSize(topic, getProducer(topic), value.length);
+                    // Builder interceptors read the context set up by this message's before-send interceptors
+                    MessageBuilderRecording recording = new MessageBuilderRecording();
+                    applyBeforeHandleSendMessageInterceptors(recording.builder());
+                    prepared.add(new PreparedMessage(position, interceptedMessage, value, codec.getContentType(),
+                            keyExtractor == null ? null : keyExtractor.apply(message), recording));
+                } catch (Exception e) {
+                    failures.put(position, e);
+                    invokeAfterSendInterceptors(topic, interceptedMessage, null, e);
                 }
-                return;
             }
+            int payloadBytes = prepared.stream().mapToInt(message -> message.value.length).sum();
+            int maxPayloadBytes = prepared.stream().mapToInt(message -> message.value.length).max().orElse(0);
+            // A batch holding an oversized payload goes to the chunking producer as a whole
+            lease = acquireProducer(topic, maxPayloadBytes > getProducer(topic).getChunking().getMaxMessageSize()
+                    ? maxPayloadBytes
+                    : prepared.isEmpty() ? 0 : payloadBytes / prepared.size());
+            CompletableFuture<Producer<byte[]>> producerFuture = lease.producer();
+            ProducerCache.Lease acquired = lease;
+            return producerFuture.whenComplete((producer, exception) -> {
+                if (exception != null) {
+                    // No message has been queued, report the failure for each of them
+                    for (PreparedMessage message : prepared) {
+                        invokeAfterSendInterceptors(topic, message.payload, null, exception);
+                    }
+                    MsgContext.remove();
+                }
+            }).thenCompose(producer -> {
+                List<CompletableFuture<?>> sends = new ArrayList<>(prepared.size());
+                for (PreparedMessage message : prepared) {
+                    try {
+                        sends.add(newMessage(producer, message.value, message.contentType, message.key, message.recording).sendAsync()
+                                .whenComplete((messageId, exception) -> {
+                                    if (exception != null) {
+                                        failures.put(message.position, exception);
+                                    } else {
+                                        messageIds[message.position] = messageId;
+                                        acquired.recordPayload(message.value.length);
+                                    }
+                                    invokeAfterSendInterceptors(topic, message.payload, messageId, exception);
+                                }));
+                    } catch (Exception e) {
+                        failures.put(message.position, e);
+                        invokeAfterSendInterceptors(topic, message.payload, null, e);
+                    }
+                }
+                producer.flushAsync();
+                // Individual failures are collected above, the batch itself always completes
+                return CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0]))
+                        .handle((ignored, exception) -> new BatchSendResult(Arrays.asList(messageIds), new TreeMap<>(failures)));
+            }).whenComplete((result, exception) -> acquired.release());
+        } catch (Exception e) {
+            if (lease != null) {
+                lease.release();
+            }
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            MsgContext.remove();
         }
+    }
+
+    /**
+     * Subscribe a consumer asynchronously, the caller owns and closes the consumer
+     *
+     * <p>Consumer settings are taken from the consumer configuration of the topic,
+     * or from the default consumer configuration if the topic has none.
+     *
+     * @param topic            Topic name
+     * @param subscriptionName Subscription name, the configured one is used if empty
+     */
+    public CompletableFuture<Consumer<byte[]>> subscribeAsync(String topic, String subscriptionName) {
+        return configureConsumer(pulsarClient.newConsumer(), topic, subscriptionName).subscribeAsync();
+    }
 
-        String topic = topicUrlMap.get(consumer.getTopic());
-        PulsarListenerContainer container = listenerContainers.get(topic);
-        if (container != null) {
-            container.processMessage(consumer, message);
+    /**
+     * Subscribe a consumer of a Pulsar schema asynchronously, the caller owns and closes the consumer
+     *
+     * <p>The broker checks the schema against the schema registered for the topic, messages are
+     * decoded by the schema. Consumers are not cached, every call subscribes a new consumer.
+     *
+     * @param topic            Topic name
+     * @param subscriptionName Subscription name, the configured one is used if empty
+     * @param schema           Pulsar schema of the messages
+     * @see #subscribeAsync(String, String)
+     */
+    public <T> CompletableFuture<Consumer<T>> subscribeAsync(String topic, String subscriptionName, Schema<T> schema) {
+        return configureConsumer(pulsarClient.newConsumer(schema), topic, subscriptionName).subscribeAsync();
+    }
+
+    /**
+     * Apply the consumer configuration of a topic to a consumer builder
+     */
+    private <T> ConsumerBuilder<T> configureConsumer(ConsumerBuilder<T> consumerBuilder, String topic, String subscriptionName) {
+        PulsarProperties.Consumer consumer = getConsumer(topic);
+        return consumerBuilder
+                .topic("persistent://" + topic)
+                .subscriptionType(SubscriptionType.valueOf(consumer.getSubscriptionType()))
+                .subscriptionName(StringUtils.hasText(subscriptionName) ? subscriptionName
+                        : StringUtils.hasText(consumer.getSubscriptionName()) ? consumer.getSubscriptionName()
+                        : pulsarProperties.getConsumer().getSubscriptionName())
+                .subscriptionInitialPosition(SubscriptionInitialPosition.valueOf(consumer.getSubscriptionInitialPosition()))
+                .ackTimeout(consumer.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .receiverQueueSize(consumer.getReceiverQueueSize())
+                .negativeAckRedeliveryDelay(consumer.getNegativeAckRedeliveryDelay(), TimeUnit.MILLISECONDS)
+                .maxPendingChunkedMessage(consumer.getMaxPendingChunkedMessage())
+                .autoAckOldestChunkedMessageOnQueueFull(consumer.isAutoAckOldestChunkedMessageOnQueueFull())
+                .expireTimeOfIncompleteChunkedMessage(consumer.getExpireTimeOfIncompleteChunkedMessage().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get consumer configuration, falls back to the default consumer configuration
+     */
+    private PulsarProperties.Consumer getConsumer(String topic) {
+        Map<String, PulsarProperties.Consumer> consumerMap = pulsarProperties.getConsumerMap();
+        if (consumerMap != null) {
+            for (PulsarProperties.Consumer consumer : consumerMap.values()) {
+                if (topic.equals(consumer.getTopic())) {
+                    return consumer;
+                }
+            }
         }
+        return pulsarProperties.getConsumer();
     }
 
     /**
-     * Build dead letter consumer
+     * Build dead letter consumer, subscribing in the background
      */
     private void buildDeadLetterConsumer(String deadTopic, String subName) {
-        try {
-            Consumer<byte[]> consumer = createConsumer(deadTopic, subName);
-            DeadLetterListenerContainer container = new DeadLetterListenerContainer(consumer, deadLetterMessageProcessor);
-            deadLetterListenerContainers.add(container);
-            container.start();
-        } catch (Exception e) {
-            logger.error("Failed to build dead letter queue listener", e);
+        synchronized (deadLetterListenerContainers) {
+            if (!deadLetterTopics.add(deadTopic)) {
+                return;
+            }
+        }
+        CompletableFuture<?> subscription = createConsumerAsync(deadTopic, subName).handle((consumer, exception) -> {
+            if (exception != null) {
+                logger.error("Failed to build dead letter queue listener", unwrap(exception));
+                return null;
+            }
+            DeadLetterListenerContainer container = new DeadLetterListenerContainer(consumer, deadLetterMessageProcessor, listenerScheduler);
+            synchronized (deadLetterListenerContainers) {
+                if (deadLetterListenersClosed) {
+                    // Subscribed after close
+                    consumer.closeAsync();
+                    return null;
+                }
+                deadLetterListenerContainers.add(container);
+                if (deadLetterListenersStarted) {
+                    container.start();
+                }
+            }
+            return container;
+        });
+        synchronized (deadLetterListenerContainers) {
+            deadLetterSubscriptions.add(subscription);
         }
     }
 
     /**
      * Create consumer
      */
-    private Consumer<byte[]> createConsumer(String topic, String subName) throws PulsarClientException {
+    private CompletableFuture<Consumer<byte[]>> createConsumerAsync(String topic, String subName) {
         return pulsarClient.newConsumer()
                 .topic("persistent://" + topic)
                 .subscriptionType(SubscriptionType.Shared)
                 .subscriptionInitialPosition(SubscriptionInitialPosition.Earliest)
                 .subscriptionName(subName)
-                .subscribe();
+                .subscribeAsync();
     }
 
     /**
-     * Get or create producer
+     * Completes once every dead letter consumer requested so far has subscribed or failed
      */
-    private Producer<byte[]> getOrCreateProducer(String topic) {
-        return producerCache.computeIfAbsent(topic, t -> {
-            try {
-                var producerConfig = getProducer(topic);
-                return pulsarClient.newProducer()
-                        .topic("persistent://" + t)
-                        .sendTimeout((int) producerConfig.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS)
-                        .blockIfQueueFull(producerConfig.isBlockIfQueueFull())
-                        .maxPendingMessages(producerConfig.getMaxPendingMessages())
-                        .enableBatching(producerConfig.isBatchingEnabled())
-                        .batchingMaxMessages(producerConfig.getBatchingMaxMessages())
-                        .batchingMaxPublishDelay((int) producerConfig.getBatchingMaxPublishDelay().toMillis(), TimeUnit.MILLISECONDS)
-                        .create();
-            } catch (PulsarClientException e) {
-                throw new PulsarProducerInitException("Failed to create producer for topic: " + t, e);
-            }
-        });
+    public CompletableFuture<Void> awaitDeadLetterSubscriptions() {
+        synchronized (deadLetterListenerContainers) {
+            return CompletableFuture.allOf(deadLetterSubscriptions.toArray(new CompletableFuture<?>[0]));
+        }
     }
 
     /**
-     * Get producer configuration
+     * Start receiving on the dead letter consumers, those still subscribing start once subscribed
      */
-    private PulsarProperties.Producer getProducer(String topic) {
-        var producer = pulsarProperties.getProducer();
-        var producerMap = pulsarProperties.getProducerMap();
-
-        if (!StringUtils.hasText(topic)) {
-            if (producer == null) {
-                throw new PulsarProducerConfigException("Failed to get producer config for topic: " + topic);
+    public void startDeadLetterListeners() {
+        synchronized (deadLetterListenerContainers) {
+            if (deadLetterListenersStarted) {
+                return;
             }
-            return producer;
+            deadLetterListenersStarted = true;
+            deadLetterListenerContainers.forEach(DeadLetterListenerContainer::start);
         }
+    }
 
-        if ((producerMap == null || producerMap.isEmpty()) && producer == null) {
-            throw new PulsarProducerConfigException("Failed to get producer config for topic: " + topic);
-        }
+    /**
+     * Create the producers of all configured topics in parallel
+     *
+     * <p>Covers every producer of {@code producerMap}, or the default producer when no
+     * producer map is configured, except topic rules. With adaptive compression both
+     * producers of a topic are created. Waits at most the given timeout; producers not ready by
+     * then keep being created in the background and are used once ready.
+     *
+     * @param timeout Maximum time to wait
+     * @return Readiness by topic
+     */
+    public Map<String, Boolean> warmUpProducers(Duration timeout) {
+        Set<String> topics = new LinkedHashSet<>();
+        Map<String, PulsarProperties.Producer> producerMap = pulsarProperties.getProducerMap();
         if (producerMap == null || producerMap.isEmpty()) {
-            if (!topic.equals(producer.getTopic())) {
-                throw new PulsarProducerConfigException("Failed to get producer config for topic: " + topic);
+            PulsarProperties.Producer producer = pulsarProperties.getProducer();
+            if (producer != null && StringUtils.hasText(producer.getTopic())) {
+                topics.add(producer.getTopic());
             }
-            return producer;
+        } else {
+            producerMap.values().stream()
+                    .map(PulsarProperties.Producer::getTopic)
+                    .filter(StringUtils::hasText)
+                    .forEach(topics::add);
         }
+        // Topic rules only name the topics they apply to once sent to
+        topics.removeIf(ProducerConfigResolver::isPattern);
+
+        long start = System.nanoTime();
+        Map<String, CompletableFuture<?>> creations = new LinkedHashMap<>();
+        for (String topic : topics) {
+            CompletableFuture<?> creation = warmUpProducer(topic);
+            if (getProducer(topic).getAdaptiveCompression().isEnabled()) {
+                creation = CompletableFuture.allOf(creation, warmUpProducer(topic + COMPRESSED_SUFFIX));
+            }
+            creations.put(topic, creation);
+        }
+        try {
+            CompletableFuture.allOf(creations.values().toArray(new CompletableFuture<?>[0]))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Reported per topic below
+        }
+
+        Map<String, Boolean> readiness = new LinkedHashMap<>();
+        creations.forEach((topic, creation) -> {
+            boolean ready = creation.isDone() && !creation.isCompletedExceptionally();
+            readiness.put(topic, ready);
+            if (ready) {
+                return;
+            }
+            if (creation.isCompletedExceptionally()) {
+                creation.exceptionally(exception -> {
+                    logger.warn("Failed to warm up producer for topic {}", topic, unwrap(exception));
+                    return null;
+                });
+            } else {
+                logger.warn("Producer for topic {} not ready within {}", topic, timeout);
+            }
+        });
+        logger.info("Warmed up {}/{} Pulsar producers in {} ms",
+                readiness.values().stream().filter(Boolean::booleanValue).count(), readiness.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return readiness;
+    }
+
+    private CompletableFuture<Producer<byte[]>> warmUpProducer(String key) {
+        ProducerCache.Lease lease = producerCache.acquire(key);
+        return lease.producer().whenComplete((producer, exception) -> lease.release());
+    }
 
-        for (Map.Entry<String, PulsarProperties.Producer> entry : producerMap.entrySet()) {
-            if (topic.equals(entry.getValue().getTopic())) {
-                return entry.getValue();
+    /**
+     * Whether the producer of a topic has been created and can send without waiting
+     */
+    public boolean isProducerReady(String topic) {
+        return producerCache.isReady(topic);
+    }
+
+    /**
+     * Resolve the Jackson serializers of the configured producer warm-up types
+     *
+     * <p>Covers the {@code warmup-types} of the default producer and of every producer of
+     * {@code producerMap}.
+     *
+     * @return Number of types warmed up
+     * @see #warmUpMessageType(Class, String)
+     */
+    public int warmUpProducerTypes() {
+        Set<Class<?>> types = new LinkedHashSet<>(pulsarProperties.getProducer().getWarmupTypes());
+        Map<String, PulsarProperties.Producer> producerMap = pulsarProperties.getProducerMap();
+        if (producerMap != null) {
+            producerMap.values().forEach(producer -> types.addAll(producer.getWarmupTypes()));
+        }
+        int warmedUp = 0;
+        for (Class<?> type : types) {
+            if (warmUpMessageType(type, null)) {
+                warmedUp++;
             }
         }
-        throw new PulsarProducerConfigException("Failed to get producer config for topic: " + topic);
+        return warmedUp;
     }
 
     /**
-     * Serialize object
+     * Resolve the Jackson reader and writer of a message type ahead of the first message
+     *
+     * <p>Jackson builds the serializer and deserializer of a type the first time it is used,
+     * which costs the first message of every type tens to hundreds of milliseconds. Listener
+     * registration and producer startup call this method so that cost is paid at startup.
+     * With {@code jackson-warmup.round-trip}, a sample built from an empty JSON object is also
+     * encoded and decoded through the codec and binding real messages use. Types handled
+     * without Jackson (strings, byte arrays, primitives) are skipped, and failures are only
+     * logged; a type is warmed up once per data key.
+     *
+     * @param type    Message type
+     * @param dataKey Data key of listener payloads, null for whole payloads
+     * @return true if the type has been warmed up
      */
-    private byte[] serialize(Object object) {
+    public boolean warmUpMessageType(Class<?> type, String dataKey) {
+        PulsarProperties.JacksonWarmup warmup = pulsarProperties.getJacksonWarmup();
+        if (!warmup.isEnabled() || type == null || byte[].class.equals(type)
+                || Message.class.equals(type) || BeanUtils.isSimpleValueType(type)) {
+            return false;
+        }
+        String key = StringUtils.hasText(dataKey) ? dataKey : null;
+        if (!warmedUpTypes.add(new BindingKey(key, type))) {
+            return true;
+        }
+        long start = System.nanoTime();
         try {
-            if (object instanceof String) {
-                return ((String) object).getBytes();
-            } else if (object instanceof byte[]) {
-                return (byte[]) object;
-            } else {
-                return objectMapper.writeValueAsBytes(object);
+            MessageCodec codec = codecRegistry.getEncoder(type, null);
+            CodecBinding<?> binding = getCodecBinding(key, type);
+            objectMapper.writerFor(type);
+            if (warmup.isRoundTrip()) {
+                roundTrip(codec, binding, type, key);
             }
+            logger.debug("Warmed up Jackson for message type {} in {} ms", type.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return true;
         } catch (Exception e) {
-            throw new JacksonException("Failed to serialize object", e);
+            logger.warn("Failed to warm up Jackson for message type {}", type.getName(), e);
+            return false;
         }
     }
 
     /**
-     * Deserialize object
+     * Encode and decode a sample of a message type
      */
-    public <T> T deserialize(byte[] data, String dataKey, Class<T> clazz) {
+    private void roundTrip(MessageCodec codec, CodecBinding<?> binding, Class<?> type, String dataKey) {
+        Object sample;
         try {
-            if (ObjectUtils.isEmpty(dataKey)) {
-                // String 类型直接转换
-                if (clazz == String.class) {
-                    return clazz.cast(new String(data, StandardCharsets.UTF_8));
-                }
-                // byte[] 类型直接返回
-                if (clazz == byte[].class) {
-                    return clazz.cast(data);
-                }
-                // 基础类型的转换
-                return deserializePrimitiveType(data, clazz);
-            }
+            sample = objectMapper.readerFor(type).readValue("{}");
+        } catch (Exception e) {
+            // Collections, abstract types and the like have no sample
+            logger.debug("No warm-up sample for message type {}: {}", type.getName(), e.getMessage());
+            return;
+        }
+        byte[] payload = encode(codec, dataKey == null ? sample : Map.of(dataKey, sample));
+        binding.decode(payload, codec.getContentType());
+    }
 
-            // 处理带 dataKey 的情况
-            JsonNode node = objectMapper.readTree(data);
-            JsonNode dataTree = node.get(dataKey);
-            if (dataTree == null) {
-                throw new JacksonException("Data key '" + dataKey + "' not found in message",
-                        new IllegalArgumentException("Missing data key: " + dataKey));
-            }
+    /**
+     * Acquire the producer for a payload
+     *
+     * <p>With adaptive compression, payloads of at least the minimum size go to a second,
+     * compressing producer of the topic. With chunking, payloads exceeding the maximum
+     * message size go to a chunking producer of the topic.
+     *
+     * @throws PulsarProducerSendException if the payload exceeds the maximum message size
+     *                                     and can be neither chunked nor compressed
+     */
+    private ProducerCache.Lease acquireProducer(String topic, int payloadSize) {
+        return acquireProducer(topic, payloadSize, false);
+    }
 
-            // String 类型
-            if (clazz == String.class) {
-                if (dataTree.isObject()) {
-                    return (T) objectMapper.writeValueAsString(dataTree);
-                }
-                return (T) dataTree.asText();
-            }
-            // byte[] 类型
-            if (clazz == byte[].class) {
-                return clazz.cast(dataTree.asText().getBytes(StandardCharsets.UTF_8));
+    /**
+     * Acquire the producer for a payload, blocking sends of a topic with the {@code DEDICATED}
+     * sync send mode use a producer of their own that does not batch
+     */
+    private ProducerCache.Lease acquireProducer(String topic, int payloadSize, boolean blocking) {
+        PulsarProperties.Producer producerConfig = getProducer(topic);
+        PulsarProperties.Chunking chunking = producerConfig.getChunking();
+        if (payloadSize > chunking.getMaxMessageSize()) {
+            if (chunking.isEnabled()) {
+                return producerCache.acquire(topic + CHUNKED_SUFFIX);
             }
-            // 基础类型和复杂对象
-            return objectMapper.treeToValue(dataTree, clazz);
-        } catch (JacksonException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new JacksonException("Failed to deserialize object", e);
+            checkMessageSize(topic, producerConfig, payloadSize);
+        }
+        PulsarProperties.AdaptiveCompression adaptive = producerConfig.getAdaptiveCompression();
+        if (adaptive.isEnabled() && payloadSize >= adaptive.getMinSize()) {
+            return producerCache.acquire(topic + COMPRESSED_SUFFIX);
         }
+        if (blocking && "DEDICATED".equalsIgnoreCase(producerConfig.getSyncSendMode())) {
+            return producerCache.acquire(topic + SYNC_SUFFIX);
+        }
+        return producerCache.acquire(topic);
     }
 
     /**
-     * Deserialize primitive types and wrapper types
+     * Send a message and wait for the broker's acknowledgement
+     *
+     * <p>In {@code FLUSH} sync send mode the producer's pending batch is flushed right away
+     * instead of waiting for the batching delay.
      */
-    @SuppressWarnings("unchecked")
-    private <T> T deserializePrimitiveType(byte[] data, Class<T> clazz) throws Exception {
-        String strValue = new String(data, StandardCharsets.UTF_8).trim();
-
-        // Boolean 类型
-        if (clazz == Boolean.class || clazz == boolean.class) {
-            return (T) Boolean.valueOf(strValue);
+    private MessageId sendBlocking(String topic, Producer<byte[]> producer,
+                                   TypedMessageBuilder<byte[]> messageBuilder) throws PulsarClientException {
+        if (!"FLUSH".equalsIgnoreCase(getProducer(topic).getSyncSendMode())) {
+            return messageBuilder.send();
+        }
+        CompletableFuture<MessageId> sendFuture = messageBuilder.sendAsync();
+        if (!sendFuture.isDone()) {
+            producer.flushAsync();
         }
-        // Integer 类型
-        if (clazz == Integer.class || clazz == int.class) {
-            return (T) Integer.valueOf(strValue);
+        try {
+            return sendFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw PulsarClientException.unwrap(e);
+        } catch (ExecutionException e) {
+            throw PulsarClientException.unwrap(e.getCause());
         }
-        // Long 类型
-        if (clazz == Long.class || clazz == long.class) {
-            return (T) Long.valueOf(strValue);
+    }
+
+    /**
+     * Reject a payload the broker would refuse instead of failing in the client
+     *
+     * <p>Payloads of producers that compress are left to the client, which checks the size
+     * after compression.
+     */
+    private static void checkMessageSize(String topic, PulsarProperties.Producer producerConfig, int payloadSize) {
+        PulsarProperties.Chunking chunking = producerConfig.getChunking();
+        if (payloadSize > chunking.getMaxMessageSize() && !chunking.isEnabled()
+                && compressionType(producerConfig, true) == CompressionType.NONE) {
+            throw new PulsarProducerSendException("Message of " + payloadSize + " bytes to topic " + topic
+                    + " exceeds the maximum message size of " + chunking.getMaxMessageSize()
+                    + " bytes, enable producer chunking to send it");
         }
-        // Double 类型
-        if (clazz == Double.class || clazz == double.class) {
-            return (T) Double.valueOf(strValue);
+    }
+
+    /**
+     * Topic of a producer cache key
+     */
+    private static String topicOf(String key) {
+        int schemaMarker = key.indexOf(SCHEMA_MARKER);
+        if (schemaMarker >= 0) {
+            return key.substring(0, schemaMarker);
         }
-        // Float 类型
-        if (clazz == Float.class || clazz == float.class) {
-            return (T) Float.valueOf(strValue);
+        if (key.endsWith(COMPRESSED_SUFFIX)) {
+            return key.substring(0, key.length() - COMPRESSED_SUFFIX.length());
         }
-        // Short 类型
-        if (clazz == Short.class || clazz == short.class) {
-            return (T) Short.valueOf(strValue);
+        if (key.endsWith(CHUNKED_SUFFIX)) {
+            return key.substring(0, key.length() - CHUNKED_SUFFIX.length());
         }
-        // Byte 类型
-        if (clazz == Byte.class || clazz == byte.class) {
-            return (T) Byte.valueOf(strValue);
+        if (key.endsWith(SYNC_SUFFIX)) {
+            return key.substring(0, key.length() - SYNC_SUFFIX.length());
         }
-        // Character 类型
-        if (clazz == Character.class || clazz == char.class) {
-            if (strValue.length() != 1) {
-                throw new IllegalArgumentException("Cannot convert string of length " + strValue.length() + " to char");
+        return key;
+    }
+
+    /**
+     * Whether a producer cache key names a producer for large payloads, which adaptive compression compresses
+     */
+    private static boolean isLargePayloadKey(String key) {
+        return key.endsWith(COMPRESSED_SUFFIX) || key.endsWith(CHUNKED_SUFFIX);
+    }
+
+    /**
+     * Compression of a producer, adaptive compression leaves the regular producer uncompressed
+     * and compresses with the compressing and chunking producers
+     */
+    private static CompressionType compressionType(PulsarProperties.Producer producerConfig, boolean compressed) {
+        PulsarProperties.AdaptiveCompression adaptive = producerConfig.getAdaptiveCompression();
+        if (adaptive.isEnabled()) {
+            return compressed ? CompressionType.valueOf(adaptive.getType()) : CompressionType.NONE;
+        }
+        return CompressionType.valueOf(producerConfig.getCompressionType());
+    }
+
+    /**
+     * Create the producer of a cache key, called by the producer cache on a miss
+     */
+    private CompletableFuture<Producer<byte[]>> createProducer(String key) {
+        boolean chunked = key.endsWith(CHUNKED_SUFFIX);
+        // Chunking is not supported with batching, dedicated sync producers send one by one
+        boolean batching = !chunked && !key.endsWith(SYNC_SUFFIX);
+        String topic = topicOf(key);
+        var producerConfig = getProducer(topic);
+        ProducerBuilder<byte[]> producerBuilder = configureProducer(pulsarClient.newProducer(), topic,
+                compressionType(producerConfig, isLargePayloadKey(key)), batching);
+        if (chunked) {
+            producerBuilder.enableChunking(true);
+            if (producerConfig.getChunking().getChunkSize() > 0) {
+                producerBuilder.chunkMaxMessageSize(producerConfig.getChunking().getChunkSize());
             }
         }
+        return producerBuilder.createAsync()
+                .exceptionallyCompose(exception -> CompletableFuture.failedFuture(new PulsarProducerInitException(
+                        "Failed to create producer for topic: " + topic, unwrap(exception))));
+    }
 
-        // 其他复杂类型使用 Jackson 反序列化
-        return objectMapper.readValue(data, clazz);
+    /**
+     * Acquire the producer of a topic and Pulsar schema from the producer cache
+     *
+     * <p>Schemas with the same type and definition share a producer.
+     */
+    private ProducerCache.Lease acquireSchemaProducer(String topic, Schema<?> schema) {
+        SchemaInfo info = schema.getSchemaInfo();
+        String key = topic + SCHEMA_MARKER + info.getType() + ":" + new String(info.getSchema(), StandardCharsets.UTF_8);
+        return producerCache.acquire(key, ignored -> createSchemaProducer(topic, schema));
     }
 
     /**
-     * Get message consumer processor
+     * Create the producer of a topic and Pulsar schema without blocking
      */
-    public String deserializeMsgRoute(byte[] data, Map<String, String> businessMap) {
-        if (businessMap.size() == 1) {
-            return businessMap.keySet().iterator().next();
+    private <T> CompletableFuture<Producer<T>> createSchemaProducer(String topic, Schema<T> schema) {
+        return configureProducer(pulsarClient.newProducer(schema), topic, compressionType(getProducer(topic), false), true)
+                .createAsync()
+                .exceptionallyCompose(exception -> CompletableFuture.failedFuture(new PulsarProducerInitException(
+                        "Failed to create producer for topic: " + topic, unwrap(exception))));
+    }
+
+    /**
+     * Apply the producer configuration of a topic to a producer builder
+     *
+     * @param batching Whether batching may be enabled, chunking and dedicated sync producers send one by one
+     */
+    private <T> ProducerBuilder<T> configureProducer(ProducerBuilder<T> builder, String topic,
+                                                     CompressionType compressionType, boolean batching) {
+        var producerConfig = getProducer(topic);
+        MessageRoutingMode routingMode = MessageRoutingMode.valueOf(producerConfig.getRoutingMode());
+        ProducerBuilder<T> producerBuilder = builder
+                .topic("persistent://" + topic)
+                .compressionType(compressionType)
+                .sendTimeout((int) producerConfig.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .blockIfQueueFull(producerConfig.isBlockIfQueueFull())
+                .maxPendingMessages(producerConfig.getMaxPendingMessages())
+                .enableBatching(producerConfig.isBatchingEnabled() && batching)
+                .batchingMaxMessages(producerConfig.getBatchingMaxMessages())
+                .batchingMaxPublishDelay((int) producerConfig.getBatchingMaxPublishDelay().toMillis(), TimeUnit.MILLISECONDS)
+                .batcherBuilder("KEY_BASED".equalsIgnoreCase(producerConfig.getBatcherType())
+                        ? BatcherBuilder.KEY_BASED
+                        : BatcherBuilder.DEFAULT)
+                .messageRoutingMode(routingMode);
+        if (routingMode == MessageRoutingMode.CustomPartition) {
+            producerBuilder.messageRouter(messageRouter);
         }
+        return producerBuilder;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+    }
+
+    /**
+     * Maximum number of pending messages of the producer of a topic
+     */
+    public int getMaxPendingMessages(String topic) {
+        return getProducer(topic).getMaxPendingMessages();
+    }
+
+    /**
+     * Get producer configuration
+     */
+    private PulsarProperties.Producer getProducer(String topic) {
+        return producerConfigResolver.resolve(topic);
+    }
+
+    /**
+     * Codec encoding a value for a topic
+     */
+    private MessageCodec getEncoder(String topic, Object value) {
+        return codecRegistry.getEncoder(value.getClass(), getProducer(topic).getContentType());
+    }
+
+    /**
+     * Encode a value through a pooled buffer
+     */
+    private byte[] encode(MessageCodec codec, Object value) {
+        EncodeBuffer buffer = encodeBuffers.acquire();
         try {
-            JsonNode jsonNode = objectMapper.readTree(new String(data));
-            for (Map.Entry<String, String> entry : businessMap.entrySet()) {
-                JsonNode node = jsonNode.get(entry.getValue());
-                if (node == null) {
-                    continue;
-                }
-                if (node.isTextual()) {
-                    if (node.asText().equals(entry.getKey())) {
-                        return entry.getKey();
-                    }
-                }
-            }
-            return "";
+            return codec.encode(value, buffer);
         } catch (Exception e) {
-            throw new PulsarConsumerNotExistException("explain handler mapping exception", e);
+            throw new JacksonException("Failed to serialize object", e);
+        } finally {
+            encodeBuffers.release(buffer);
         }
     }
 
+    /**
+     * Deserialize object
+     */
+    public <T> T deserialize(byte[] data, String dataKey, Class<T> clazz) {
+        return deserialize(data, null, dataKey, clazz);
+    }
+
+    /**
+     * Deserialize object with the codec of a content type
+     *
+     * @param contentType Content type of the message, null for messages sent without one
+     */
+    public <T> T deserialize(byte[] data, String contentType, String dataKey, Class<T> clazz) {
+        return getCodecBinding(dataKey, clazz).decode(data, contentType);
+    }
+
+    /**
+     * Create a binding decoding payloads of every registered content type, decoders are resolved once per content type
+     */
+    public <T> CodecBinding<T> createCodecBinding(String dataKey, Class<T> clazz) {
+        return codecRegistry.createBinding(dataKey, clazz);
+    }
+
+    /**
+     * Create a binding decoding payloads with a Pulsar schema instead of the message codecs
+     *
+     * <p>Payloads are decoded with the schema version of their message, so messages written
+     * with an earlier version of an evolving schema keep decoding. Resolving a version needs
+     * the provider of the topic's schema versions, which the client registers on the schema
+     * when a consumer subscribes with it; pass the schema instance the consumer subscribed with
+     * (see {@link #getOrCreateConsumerAsync(String, PulsarProperties.Consumer, MessageListener, Schema)}).
+     */
+    public <T> CodecBinding<T> createSchemaBinding(Schema<T> schema, Class<T> clazz) {
+        return CodecBinding.of(clazz, schema::decode);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CodecBinding<T> getCodecBinding(String dataKey, Class<T> clazz) {
+        return (CodecBinding<T>) codecBindingCache.computeIfAbsent(new BindingKey(dataKey, clazz),
+                key -> createCodecBinding(dataKey, clazz));
+    }
+
+    /**
+     * Get message consumer processor
+     */
+    public String deserializeMsgRoute(byte[] data, Map<String, String> businessMap) {
+        return createMsgRouteResolver(businessMap).resolve(data);
+    }
+
+    /**
+     * Jackson factory parsing payloads of a content type, see {@link MessageCodecRegistry#getJsonFactory(String)}
+     */
+    public JsonFactory getJsonFactory(String contentType) {
+        return codecRegistry.getJsonFactory(contentType);
+    }
+
+    /**
+     * Create a streaming route resolver for a route to route key mapping
+     */
+    public MsgRouteResolver createMsgRouteResolver(Map<String, String> routeToKey) {
+        return MsgRouteResolver.of(objectMapper.getFactory(), routeToKey);
+    }
+
     /**
      * Execute before-send interceptors
      */
@@ -639,6 +1434,14 @@ public final class PulsarTemplate {
      * Execute after-send interceptors
      */
     private void applyAfterSendInterceptors(String topic, Object message, MessageId messageId, Throwable exception) {
+        invokeAfterSendInterceptors(topic, message, messageId, exception);
+        MsgContext.remove();
+    }
+
+    /**
+     * Execute after-send interceptors without clearing the message context
+     */
+    private void invokeAfterSendInterceptors(String topic, Object message, MessageId messageId, Throwable exception) {
         if (interceptorRegistry == null) {
             return;
         }
@@ -651,8 +1454,6 @@ public final class PulsarTemplate {
                 logger.error("Error in afterSend interceptor: " + e.getMessage(), e);
             }
         }
-
-        MsgContext.remove();
     }
 
     /**
@@ -696,37 +1497,93 @@ public final class PulsarTemplate {
         MsgContext.remove();
     }
 
+    /**
+     * Producer cache hit, miss and eviction counts
+     */
+    public ProducerCache.Stats getProducerCacheStats() {
+        return producerCache.getStats();
+    }
+
+    /**
+     * Compression achieved by the compressing producers, by producer cache key
+     *
+     * <p>The compressing producer of a topic with adaptive compression is keyed
+     * {@code <topic>::compressed}, the chunking producer {@code <topic>::chunked}.
+     */
+    public Map<String, CompressionStats> getCompressionStats() {
+        Map<String, CompressionStats> stats = new LinkedHashMap<>();
+        producerCache.getCompressionStats().forEach((key, compression) -> {
+            String topic = topicOf(key);
+            // Payload sizes are only recorded on the byte[] path
+            if (!key.contains(SCHEMA_MARKER)
+                    && compressionType(getProducer(topic), isLargePayloadKey(key)) != CompressionType.NONE) {
+                stats.put(key, compression);
+            }
+        });
+        return stats;
+    }
+
+    /**
+     * Statistics of the cached producers by producer cache key
+     *
+     * <p>Schema producers are keyed {@code <topic>::schema:<type>:<definition>}.
+     */
+    public Map<String, ProducerStats> getProducerStats() {
+        return producerCache.getProducerStats();
+    }
+
+    /**
+     * Shared scheduler running listener and dead letter receive callbacks
+     */
+    public ListenerScheduler getListenerScheduler() {
+        return listenerScheduler;
+    }
+
     /**
      * Close resources
      */
     public void close() {
         logger.info("Pulsar Producer closing");
-        producerCache.values().forEach(producer -> {
-            try {
-                producer.close();
-            } catch (PulsarClientException e) {
-                // Ignore exception during shutdown
-            }
-        });
-        producerCache.clear();
+        producerCache.close();
         logger.info("Pulsar Producer closed");
 
         logger.info("Pulsar consumer closing");
-        consumerCache.values().forEach(c -> {
+        consumerCache.values().forEach(future -> future.thenAccept(c -> {
             try {
                 c.close();
             } catch (PulsarClientException e) {
                 // ignore
             }
-        });
+        }));
         consumerCache.clear();
 
         logger.info("Pulsar dead letter consumer closing");
         logger.info("Pulsar consumer closed");
-        for (DeadLetterListenerContainer container : deadLetterListenerContainers) {
-            container.stop();
+        synchronized (deadLetterListenerContainers) {
+            for (DeadLetterListenerContainer container : deadLetterListenerContainers) {
+                container.stop();
+            }
+            deadLetterListenerContainers.clear();
+            deadLetterSubscriptions.clear();
+            deadLetterListenersClosed = true;
         }
-        deadLetterListenerContainers.clear();
         logger.info("Pulsar dead letter consumer closed");
+
+        if (!listenerScheduler.shutdown(Duration.ofSeconds(10))) {
+            logger.warn("Timed out waiting for Pulsar listener scheduler to stop");
+        }
+    }
+
+    /**
+     * Message of a batch, intercepted and serialized before the producer is available
+     */
+    private record PreparedMessage(int position, Object payload, byte[] value, String contentType, String key,
+                                   MessageBuilderRecording recording) {
+    }
+
+    /**
+     * Payload binding cache key
+     */
+    private record BindingKey(String dataKey, Class<?> type) {
     }
-}
\ No newline at end of file
+}
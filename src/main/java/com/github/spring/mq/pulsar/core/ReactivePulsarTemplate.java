@@ -0,0 +1,214 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.github.spring.mq.pulsar.domain.MsgMetaKey;
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Reactive Pulsar template
+ *
+ * <p>Reactor based facade over {@link PulsarTemplate}. Messages go through the same
+ * interceptor chain, serializer and producer cache as the blocking and
+ * {@code CompletableFuture} based API:
+ * <ul>
+ *   <li>{@link #send(String, Publisher)} keeps at most the producer's
+ *   {@code max-pending-messages} sends in flight and only requests more elements from
+ *   the upstream publisher as sends complete; message IDs are emitted in upstream order</li>
+ *   <li>{@link #receive(String, String, Class)} subscribes a dedicated consumer and only
+ *   receives from Pulsar while the subscriber has outstanding demand</li>
+ * </ul>
+ *
+ * <p>No additional threads are involved: sends complete and messages are emitted on
+ * the Pulsar client's threads.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public class ReactivePulsarTemplate {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactivePulsarTemplate.class);
+
+    private final PulsarTemplate pulsarTemplate;
+
+    public ReactivePulsarTemplate(PulsarTemplate pulsarTemplate) {
+        this.pulsarTemplate = pulsarTemplate;
+    }
+
+    /**
+     * Send one message
+     *
+     * @return Message ID, empty if a send interceptor filtered the message
+     */
+    public Mono<MessageId> send(String topic, Object message) {
+        return send(topic, null, message);
+    }
+
+    /**
+     * Send one message with key
+     *
+     * @return Message ID, empty if a send interceptor filtered the message
+     */
+    public Mono<MessageId> send(String topic, String key, Object message) {
+        return Mono.fromFuture(() -> pulsarTemplate.sendAsync(topic, key, message));
+    }
+
+    /**
+     * Send a stream of messages
+     *
+     * @return Message IDs in upstream order, filtered messages are skipped
+     */
+    public <T> Flux<MessageId> send(String topic, Publisher<T> messages) {
+        return send(topic, messages, null);
+    }
+
+    /**
+     * Send a stream of messages with keys
+     *
+     * @param keyExtractor Derives the message key, may be null
+     * @return Message IDs in upstream order, filtered messages are skipped
+     */
+    public <T> Flux<MessageId> send(String topic, Publisher<T> messages, Function<? super T, String> keyExtractor) {
+        return Flux.defer(() -> {
+            int maxInFlight = Math.max(1, pulsarTemplate.getMaxPendingMessages(topic));
+            return Flux.from(messages).flatMapSequential(message -> send(topic,
+                            keyExtractor == null ? null : keyExtractor.apply(message), message),
+                    maxInFlight, 1);
+        });
+    }
+
+    /**
+     * Receive messages of a topic with the configured subscription
+     */
+    public <T> Flux<T> receive(String topic, Class<T> type) {
+        return receive(topic, null, type);
+    }
+
+    /**
+     * Receive messages of a topic
+     *
+     * <p>A consumer is subscribed when the flux is subscribed and closed when it
+     * terminates or is cancelled. Each message is acknowledged once the subscriber's
+     * {@code onNext} has returned; messages that cannot be decoded are negatively
+     * acknowledged and skipped.
+     *
+     * @param subscriptionName Subscription name, the configured one is used if empty
+     */
+    public <T> Flux<T> receive(String topic, String subscriptionName, Class<T> type) {
+        return Flux.usingWhen(
+                Mono.fromFuture(() -> pulsarTemplate.subscribeAsync(topic, subscriptionName)),
+                consumer -> Flux.<T>create(sink -> new DemandReceiver<>(consumer, sink, type).start()),
+                consumer -> Mono.fromFuture(consumer::closeAsync));
+    }
+
+    /**
+     * Issues one receive at a time while the subscriber has outstanding demand
+     *
+     * <p>Receives that complete immediately are drained in a loop rather than recursively.
+     */
+    private final class DemandReceiver<T> {
+
+        private final Consumer<byte[]> consumer;
+        private final FluxSink<T> sink;
+        private final Class<T> type;
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean receiving;
+
+        DemandReceiver(Consumer<byte[]> consumer, FluxSink<T> sink, Class<T> type) {
+            this.consumer = consumer;
+            this.sink = sink;
+            this.type = type;
+        }
+
+        void start() {
+            sink.onRequest(n -> drain());
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!receiving && !sink.isCancelled() && sink.requestedFromDownstream() > 0) {
+                    receiving = true;
+                    consumer.receiveAsync().whenComplete(this::onReceived);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void onReceived(Message<byte[]> message, Throwable error) {
+            if (error != null) {
+                sink.error(error);
+                return;
+            }
+            emit(message);
+            receiving = false;
+            drain();
+        }
+
+        private void emit(Message<byte[]> message) {
+            if (sink.isCancelled()) {
+                // Not delivered, let the broker redeliver it to another subscriber
+                consumer.negativeAcknowledge(message);
+                return;
+            }
+            T payload = null;
+            Exception processException = null;
+            try {
+                if (!pulsarTemplate.applyBeforeReceiveInterceptors(message)) {
+                    consumer.acknowledge(message);
+                    return;
+                }
+                payload = pulsarTemplate.deserialize(message.getData(),
+                        message.getProperty(MsgMetaKey.CONTENT_TYPE.getCode()), null, type);
+                sink.next(payload);
+                consumer.acknowledge(message);
+            } catch (PulsarClientException e) {
+                processException = e;
+                logger.error("Error acknowledging message: {}", message.getMessageId(), e);
+            } catch (Exception e) {
+                processException = e;
+                logger.error("Error decoding message: {}", message.getMessageId(), e);
+                consumer.negativeAcknowledge(message);
+            } finally {
+                pulsarTemplate.applyAfterReceiveInterceptors(message, payload, processException);
+            }
+        }
+    }
+}
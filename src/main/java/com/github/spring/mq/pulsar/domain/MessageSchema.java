@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.domain;
+
+import org.apache.pulsar.client.api.Schema;
+
+/**
+ * Pulsar schema of listener payloads
+ *
+ * <p>Selects how a listener decodes payloads:
+ * <ul>
+ *   <li>NONE: Message codec chosen by the content type property of each message</li>
+ *   <li>STRING, JSON, AVRO: Pulsar schema of the message type</li>
+ * </ul>
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public enum MessageSchema {
+    /**
+     * No Pulsar schema
+     * Payloads are decoded by the message codec of their content type
+     */
+    NONE,
+
+    /**
+     * UTF-8 string schema, the message type must be String
+     */
+    STRING,
+
+    /**
+     * JSON schema of the message type
+     */
+    JSON,
+
+    /**
+     * Avro schema of the message type
+     */
+    AVRO;
+
+    /**
+     * Create the Pulsar schema of a message type
+     *
+     * @param type Message type
+     * @return Pulsar schema, null for NONE
+     * @throws IllegalArgumentException if the STRING schema is used with a type other than String
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Schema<T> create(Class<T> type) {
+        return switch (this) {
+            case NONE -> null;
+            case STRING -> {
+                if (!String.class.equals(type)) {
+                    throw new IllegalArgumentException("STRING schema requires message type String, got " + type.getName());
+                }
+                yield (Schema<T>) Schema.STRING;
+            }
+            case JSON -> Schema.JSON(type);
+            case AVRO -> Schema.AVRO(type);
+        };
+    }
+}
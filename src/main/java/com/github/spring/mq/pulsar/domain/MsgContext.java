@@ -134,6 +134,31 @@ public class MsgContext {
         HOLDER.remove();
     }
 
+    /**
+     * Detach the current context from this thread and return it, so that it can be
+     * re-attached later with {@link #attach(Context)}.
+     *
+     * @return the detached context, or {@code null} if none was set
+     */
+    public static Context detach() {
+        Context context = HOLDER.get();
+        HOLDER.remove();
+        return context;
+    }
+
+    /**
+     * Attach a context previously obtained from {@link #detach()} to this thread.
+     *
+     * @param context context to attach, {@code null} clears the current context
+     */
+    public static void attach(Context context) {
+        if (context == null) {
+            HOLDER.remove();
+        } else {
+            HOLDER.set(context);
+        }
+    }
+
     public static class Context {
         private String corpKey;
         private String appName;
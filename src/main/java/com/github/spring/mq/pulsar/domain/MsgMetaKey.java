@@ -42,6 +42,11 @@ public enum MsgMetaKey {
     MSG_ROUTE("msgRoute"),
 
     TIME("time"),
+
+    /**
+     * Content type of the payload, selects the message codec of consumers
+     */
+    CONTENT_TYPE("contentType"),
     ;
 
     private final String code;
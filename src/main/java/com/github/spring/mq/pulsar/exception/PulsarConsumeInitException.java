@@ -35,6 +35,10 @@ package com.github.spring.mq.pulsar.exception;
  * @since 1.0.0
  */
 public class PulsarConsumeInitException extends PulsarException {
+    public PulsarConsumeInitException(String msg) {
+        super(msg);
+    }
+
     public PulsarConsumeInitException(String msg, Throwable cause) {
         super(msg, cause);
     }
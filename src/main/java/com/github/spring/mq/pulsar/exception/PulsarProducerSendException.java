@@ -39,6 +39,10 @@ public class PulsarProducerSendException extends PulsarException {
         super("Message send exception", cause);
     }
 
+    public PulsarProducerSendException(String message) {
+        super(message);
+    }
+
     public PulsarProducerSendException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+/**
+ * Chunked messages received by a listener
+ *
+ * <p>The Pulsar client does not expose when the first chunk of a message arrived, so reassembly
+ * time itself is not measured. Delivery latency is measured instead, from the publish time of
+ * the message to its delivery to the listener as a whole: it covers the transfer and reassembly
+ * of all chunks, but also any time the message spent in the backlog and clock skew between the
+ * producer and the consumer. Held bytes count reassembled messages received and not yet
+ * processed by the listener.
+ *
+ * @param messages              Number of chunked messages received
+ * @param bytes                 Total size of the chunked messages received
+ * @param totalDeliveryMillis   Sum of the delivery latencies
+ * @param maxDeliveryMillis     Longest delivery latency
+ * @param heldBytes             Size of the chunked messages currently held by the listener
+ * @param maxHeldBytes          Largest size held at once
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public record ChunkStats(long messages, long bytes, long totalDeliveryMillis, long maxDeliveryMillis,
+                         long heldBytes, long maxHeldBytes) {
+
+    /**
+     * Average delivery latency, 0 until a chunked message has been received
+     */
+    public double averageDeliveryMillis() {
+        return messages == 0 ? 0 : (double) totalDeliveryMillis / messages;
+    }
+}
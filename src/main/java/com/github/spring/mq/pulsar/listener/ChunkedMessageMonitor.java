@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageIdAdv;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the chunked messages of a listener container
+ *
+ * <p>A message counts as held from {@link #received(Message)} until
+ * {@link #released(Message)}; messages that were not chunked are ignored.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public class ChunkedMessageMonitor {
+
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder deliveryMillis = new LongAdder();
+    private final AtomicLong maxDeliveryMillis = new AtomicLong();
+    private final AtomicLong heldBytes = new AtomicLong();
+    private final AtomicLong maxHeldBytes = new AtomicLong();
+
+    /**
+     * Record a received message
+     *
+     * @return true if the message was chunked and must be released once processed
+     */
+    public boolean received(Message<?> message) {
+        if (!isChunked(message)) {
+            return false;
+        }
+        int size = message.size();
+        // Publish to delivery, the client does not expose when the first chunk arrived
+        long delivery = Math.max(0, System.currentTimeMillis() - message.getPublishTime());
+        messages.increment();
+        bytes.add(size);
+        deliveryMillis.add(delivery);
+        maxDeliveryMillis.accumulateAndGet(delivery, Math::max);
+        maxHeldBytes.accumulateAndGet(heldBytes.addAndGet(size), Math::max);
+        return true;
+    }
+
+    /**
+     * Record that a chunked message has been processed
+     */
+    public void released(Message<?> message) {
+        heldBytes.addAndGet(-message.size());
+    }
+
+    public ChunkStats getStats() {
+        return new ChunkStats(messages.sum(), bytes.sum(), deliveryMillis.sum(), maxDeliveryMillis.get(),
+                heldBytes.get(), maxHeldBytes.get());
+    }
+
+    /**
+     * Whether a message was reassembled from chunks
+     */
+    static boolean isChunked(Message<?> message) {
+        return message.getMessageId() instanceof MessageIdAdv messageId
+                && messageId.getFirstChunkMessageId() != null;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Event mode message listener bound to one listener container
+ *
+ * <p>One instance is registered per Pulsar consumer. Messages from the subscribed
+ * topic, all of its partitions and its retry topic arrive on that consumer, so the
+ * listener hands them straight to its container without any topic lookup.
+ *
+ * <p>The consumer has to exist before the container can be created, so the container
+ * is bound right after subscription. Messages delivered in between are negatively
+ * acknowledged and redelivered later.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public class ContainerMessageListener implements MessageListener<byte[]> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContainerMessageListener.class);
+
+    private volatile PulsarListenerContainer container;
+
+    /**
+     * Bind the container receiving the consumer's messages
+     */
+    public void bind(PulsarListenerContainer container) {
+        this.container = container;
+    }
+
+    @Override
+    public void received(Consumer<byte[]> consumer, Message<byte[]> msg) {
+        PulsarListenerContainer target = this.container;
+        if (target == null) {
+            logger.debug("Listener container not bound yet, redelivering message: {}", msg.getMessageId());
+            consumer.negativeAcknowledge(msg);
+            return;
+        }
+        target.dispatch(consumer, msg);
+    }
+}
@@ -30,31 +30,45 @@ import org.apache.pulsar.client.api.PulsarClientException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Dead letter queue listener container
  *
+ * <p>Receives asynchronously on the shared {@link ListenerScheduler}, keeping one
+ * receive outstanding at a time. Messages are processed on a single worker lane
+ * drained on the scheduler like the lanes of listener containers, the receive callback
+ * only hands them off, and the next receive is issued once a message has been processed.
+ *
  * @author avinzhang
  */
 public class DeadLetterListenerContainer {
     private static final Logger logger = LoggerFactory.getLogger(DeadLetterListenerContainer.class);
+    /**
+     * Delay before receiving again after a receive error
+     */
+    private static final Duration RECEIVE_ERROR_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
     private final Consumer<byte[]> consumer;
 
     private final DeadLetterMessageProcessor deadLetterMessageProcessor;
 
-    private final ExecutorService executor;
+    private final ListenerScheduler scheduler;
+    /**
+     * Worker lane processing the dead letter messages
+     */
+    private final KeyOrderedExecutor dispatcher;
     private volatile boolean running = false;
 
-    public DeadLetterListenerContainer(Consumer<byte[]> consumer, DeadLetterMessageProcessor deadLetterMessageProcessor) {
+    public DeadLetterListenerContainer(Consumer<byte[]> consumer,
+                                       DeadLetterMessageProcessor deadLetterMessageProcessor,
+                                       ListenerScheduler scheduler) {
         this.consumer = consumer;
         this.deadLetterMessageProcessor = deadLetterMessageProcessor;
-        this.executor = Executors.newSingleThreadExecutor(r -> {
-            Thread thread = new Thread(r, "pulsar-deadletter-listener-" + consumer.toString());
-            thread.setDaemon(true);
-            return thread;
-        });
+        this.scheduler = scheduler;
+        this.dispatcher = new KeyOrderedExecutor(1, 1, scheduler.executor());
     }
 
     /**
@@ -65,17 +79,44 @@ public class DeadLetterListenerContainer {
             return;
         }
         running = true;
-        executor.submit(this::listen);
+        receiveNext();
+    }
+
+    private void receiveNext() {
+        if (!running) {
+            return;
+        }
+        try {
+            consumer.receiveAsync().whenCompleteAsync(this::onReceived, scheduler.executor());
+        } catch (RejectedExecutionException e) {
+            logger.warn("Listener scheduler shut down, stopped receiving dead letter messages");
+        }
     }
 
-    private void listen() {
-        while (running) {
-            try {
-                Message<byte[]> message = consumer.receive();
-                deadLetterMessageProcessor.process(consumer, message);
-            } catch (Exception e) {
-                logger.error("Error receiving message", e);
-            }
+    private void onReceived(Message<byte[]> message, Throwable error) {
+        if (!running) {
+            return;
+        }
+        if (error != null) {
+            logger.error("Error receiving message", error);
+            scheduler.schedule(this::receiveNext, RECEIVE_ERROR_BACKOFF);
+            return;
+        }
+        try {
+            dispatcher.submit(null, () -> process(message));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Dead letter listener shut down, message will be redelivered");
+            consumer.negativeAcknowledge(message);
+        }
+    }
+
+    private void process(Message<byte[]> message) {
+        try {
+            deadLetterMessageProcessor.process(consumer, message);
+        } catch (Exception e) {
+            logger.error("Error processing dead letter message", e);
+        } finally {
+            receiveNext();
         }
     }
 
@@ -84,7 +125,9 @@ public class DeadLetterListenerContainer {
      */
     public void stop() {
         running = false;
-        this.executor.shutdown();
+        if (!dispatcher.shutdown(SHUTDOWN_TIMEOUT)) {
+            logger.warn("Timed out waiting for the in-flight dead letter message");
+        }
         try {
             consumer.close();
         } catch (PulsarClientException e) {
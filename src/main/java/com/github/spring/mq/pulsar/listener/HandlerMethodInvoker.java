@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import com.github.spring.mq.pulsar.exception.PulsarConsumeInitException;
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handler method invoker
+ *
+ * <p>Resolves the signature of a listener or exception handler method once, at
+ * registration time, into a {@link MethodHandle} and a fixed array of argument
+ * resolvers. Invocations then go through {@code invokeExact} without reflection,
+ * accessibility checks or per-call parameter inspection; methods with up to five
+ * parameters are invoked without allocating an argument array.
+ *
+ * <p>Supported listener parameters: the payload (first parameter), {@link Message},
+ * {@link MessageId}, {@link Consumer}, {@code Map} (message properties) and
+ * {@code String} (message key). Batch listeners receive the payload list first and
+ * may declare a second {@code List} parameter for the raw messages.
+ *
+ * <p>Supported exception handler parameters: the {@link Throwable}, {@link Consumer},
+ * {@link Message}, {@link MessageId}, {@code Map} (message properties) and
+ * {@code String} (message key).
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public final class HandlerMethodInvoker {
+
+    private static final int MAX_EXACT_ARITY = 5;
+
+    private final Method method;
+    private final MethodHandle handle;
+    private final ArgumentResolver[] resolvers;
+
+    private HandlerMethodInvoker(Object bean, Method method, ArgumentResolver[] resolvers) {
+        this.method = method;
+        this.resolvers = resolvers;
+        try {
+            ReflectionUtils.makeAccessible(method);
+            MethodHandle target = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                target = target.bindTo(bean);
+            }
+            target = target.asType(MethodType.genericMethodType(resolvers.length));
+            if (resolvers.length > MAX_EXACT_ARITY) {
+                target = target.asSpreader(Object[].class, resolvers.length);
+            }
+            this.handle = target;
+        } catch (IllegalAccessException e) {
+            throw new PulsarConsumeInitException("Cannot access handler method: " + method, e);
+        }
+    }
+
+    /**
+     * Create an invoker for a @PulsarListener method
+     *
+     * @param bean   Bean instance
+     * @param method Listener method
+     * @param batch  Whether the method consumes a list of messages
+     */
+    public static HandlerMethodInvoker forListener(Object bean, Method method, boolean batch) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        ArgumentResolver[] resolvers = new ArgumentResolver[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i == 0) {
+                resolvers[i] = (payload, source, consumer, throwable) -> payload;
+            } else if (batch) {
+                if (!List.class.equals(parameterTypes[i]) || i != 1) {
+                    throw unsupportedParameter(method, parameterTypes[i]);
+                }
+                resolvers[i] = (payload, source, consumer, throwable) -> source;
+            } else {
+                resolvers[i] = messageArgument(method, parameterTypes[i]);
+            }
+        }
+        return new HandlerMethodInvoker(bean, method, resolvers);
+    }
+
+    /**
+     * Create an invoker for a @ConsumerExceptionHandler method
+     *
+     * @param bean   Bean instance
+     * @param method Exception handler method
+     */
+    public static HandlerMethodInvoker forExceptionHandler(Object bean, Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        ArgumentResolver[] resolvers = new ArgumentResolver[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (Throwable.class.isAssignableFrom(parameterTypes[i])) {
+                resolvers[i] = (payload, source, consumer, throwable) -> throwable;
+            } else {
+                resolvers[i] = messageArgument(method, parameterTypes[i]);
+            }
+        }
+        return new HandlerMethodInvoker(bean, method, resolvers);
+    }
+
+    private static ArgumentResolver messageArgument(Method method, Class<?> type) {
+        if (Message.class.isAssignableFrom(type)) {
+            return (payload, source, consumer, throwable) -> source;
+        }
+        if (MessageId.class.isAssignableFrom(type)) {
+            return (payload, source, consumer, throwable) -> ((Message<?>) source).getMessageId();
+        }
+        if (Consumer.class.isAssignableFrom(type)) {
+            return (payload, source, consumer, throwable) -> consumer;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return (payload, source, consumer, throwable) -> ((Message<?>) source).getProperties();
+        }
+        if (String.class.equals(type)) {
+            return (payload, source, consumer, throwable) -> ((Message<?>) source).getKey();
+        }
+        throw unsupportedParameter(method, type);
+    }
+
+    private static PulsarConsumeInitException unsupportedParameter(Method method, Class<?> type) {
+        return new PulsarConsumeInitException("Unsupported parameter type " + type.getName()
+                + " on handler method: " + method);
+    }
+
+    /**
+     * Invoke the handler method
+     *
+     * @param payload   Deserialized payload, or the payload list for batch listeners
+     * @param source    The message, or the list of messages for batch listeners
+     * @param consumer  Consumer that received the message
+     * @param throwable Exception being handled, null for listeners
+     * @return Method return value, null for void methods
+     * @throws Exception Exception thrown by the handler method, unwrapped; other
+     *                   throwables are wrapped in an {@link UndeclaredThrowableException}
+     */
+    public Object invoke(Object payload, Object source, Consumer<?> consumer, Throwable throwable) throws Exception {
+        ArgumentResolver[] r = this.resolvers;
+        try {
+            switch (r.length) {
+                case 0:
+                    return (Object) handle.invokeExact();
+                case 1:
+                    return (Object) handle.invokeExact(
+                            r[0].resolve(payload, source, consumer, throwable));
+                case 2:
+                    return (Object) handle.invokeExact(
+                            r[0].resolve(payload, source, consumer, throwable),
+                            r[1].resolve(payload, source, consumer, throwable));
+                case 3:
+                    return (Object) handle.invokeExact(
+                            r[0].resolve(payload, source, consumer, throwable),
+                            r[1].resolve(payload, source, consumer, throwable),
+                            r[2].resolve(payload, source, consumer, throwable));
+                case 4:
+                    return (Object) handle.invokeExact(
+                            r[0].resolve(payload, source, consumer, throwable),
+                            r[1].resolve(payload, source, consumer, throwable),
+                            r[2].resolve(payload, source, consumer, throwable),
+                            r[3].resolve(payload, source, consumer, throwable));
+                case 5:
+                    return (Object) handle.invokeExact(
+                            r[0].resolve(payload, source, consumer, throwable),
+                            r[1].resolve(payload, source, consumer, throwable),
+                            r[2].resolve(payload, source, consumer, throwable),
+                            r[3].resolve(payload, source, consumer, throwable),
+                            r[4].resolve(payload, source, consumer, throwable));
+                default:
+                    Object[] args = new Object[r.length];
+                    for (int i = 0; i < r.length; i++) {
+                        args[i] = r[i].resolve(payload, source, consumer, throwable);
+                    }
+                    return (Object) handle.invokeExact(args);
+            }
+        } catch (Exception | VirtualMachineError e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    /**
+     * Handler method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Resolves one argument of a handler method
+     */
+    @FunctionalInterface
+    interface ArgumentResolver {
+        Object resolve(Object payload, Object source, Consumer<?> consumer, Throwable throwable);
+    }
+}
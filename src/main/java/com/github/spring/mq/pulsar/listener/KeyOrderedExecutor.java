@@ -0,0 +1,284 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.spring.mq.pulsar.listener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Key ordered executor
+ *
+ * <p>Dispatches tasks to a fixed number of serial lanes. Tasks submitted with the
+ * same key always land on the same lane and therefore run one after another in
+ * submission order, while tasks with different keys may run in parallel. Tasks
+ * without a key are spread over the lanes round-robin.
+ *
+ * <p>Lanes own no threads: a lane with queued tasks is drained as a task of a
+ * shared executor and gives its slot back as soon as it is empty, or after a bounded
+ * number of tasks so that the lanes of other executors sharing the pool take turns.
+ *
+ * <p>The number of queued and running tasks is bounded by a capacity. Tasks are
+ * submitted from client and scheduler callbacks that must not block, so
+ * {@link #submit(String, Runnable)} always accepts the task and reports saturation so
+ * the caller can apply backpressure upstream; a low water mark listener signals when
+ * the backlog has drained again.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public class KeyOrderedExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyOrderedExecutor.class);
+    /**
+     * Maximum number of tasks a lane runs before yielding its slot of the shared executor
+     */
+    private static final int TASKS_PER_DRAIN = 32;
+
+    private final Lane[] lanes;
+    private final Executor executor;
+    private final int capacity;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition idle = lock.newCondition();
+    private volatile boolean shutdown = false;
+    private volatile int lowWaterMark = -1;
+    private volatile Runnable lowWaterMarkListener;
+
+    /**
+     * @param concurrency Number of lanes, i.e. the maximum number of tasks running at once
+     * @param capacity    Maximum number of queued and running tasks
+     * @param executor    Shared executor draining the lanes, may run virtual threads
+     */
+    public KeyOrderedExecutor(int concurrency, int capacity, Executor executor) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be greater than 0");
+        }
+        if (capacity < concurrency) {
+            throw new IllegalArgumentException("capacity must not be less than concurrency");
+        }
+        this.executor = executor;
+        this.capacity = capacity;
+        this.lanes = new Lane[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    /**
+     * Submit a task without blocking
+     *
+     * <p>The task is always accepted, even beyond the capacity.
+     *
+     * @param key  Ordering key, tasks with the same key run sequentially; may be null
+     * @param task Task to run
+     * @return false if the executor is saturated after accepting the task
+     * @throws RejectedExecutionException if the executor or the shared executor has been shut down
+     */
+    public boolean submit(String key, Runnable task) {
+        return enqueue(key, task) < capacity;
+    }
+
+    /**
+     * Register a listener invoked whenever a task completes with the number of pending
+     * tasks at or below the low water mark
+     *
+     * <p>The listener runs on a worker thread, must not block and must be cheap to
+     * invoke again once it has acted.
+     */
+    public void onLowWaterMark(int lowWaterMark, Runnable listener) {
+        this.lowWaterMarkListener = listener;
+        this.lowWaterMark = lowWaterMark;
+    }
+
+    /**
+     * Number of queued and running tasks
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Maximum number of queued and running tasks
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of lanes
+     */
+    public int getConcurrency() {
+        return lanes.length;
+    }
+
+    /**
+     * Stop accepting tasks and wait for queued tasks to finish
+     *
+     * <p>The shared executor is left running.
+     *
+     * @param timeout Maximum time to wait
+     * @return true if all tasks finished within the timeout
+     */
+    public boolean shutdown(Duration timeout) {
+        shutdown = true;
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try {
+            while (pending.get() > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = idle.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int enqueue(String key, Runnable task) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Key ordered executor has been shut down");
+        }
+        int count = pending.incrementAndGet();
+        try {
+            laneFor(key).submit(task);
+        } catch (RuntimeException e) {
+            completed();
+            throw e;
+        }
+        return count;
+    }
+
+    private void completed() {
+        int count = pending.decrementAndGet();
+        if (count == 0 && shutdown) {
+            lock.lock();
+            try {
+                idle.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        // Not only on the exact value, a drain may skip past it
+        if (count <= lowWaterMark) {
+            Runnable listener = lowWaterMarkListener;
+            if (listener != null) {
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    logger.error("Error in low water mark listener", e);
+                }
+            }
+        }
+    }
+
+    private Lane laneFor(String key) {
+        int slot = key == null
+                ? roundRobin.getAndIncrement()
+                : key.hashCode();
+        return lanes[Math.floorMod(slot, lanes.length)];
+    }
+
+    /**
+     * Serial lane, at most one drain of a lane is scheduled or running at any time
+     */
+    private final class Lane implements Runnable {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void submit(Runnable task) {
+            tasks.add(task);
+            try {
+                schedule();
+            } catch (RejectedExecutionException e) {
+                tasks.remove(task);
+                throw e;
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Runnable task;
+                for (int i = 0; i < TASKS_PER_DRAIN && (task = tasks.poll()) != null; i++) {
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        logger.error("Error running ordered task", t);
+                    } finally {
+                        completed();
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!tasks.isEmpty()) {
+                    try {
+                        schedule();
+                    } catch (RejectedExecutionException e) {
+                        drop();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Drop the queued tasks once the shared executor has been shut down
+         */
+        private void drop() {
+            logger.warn("Dropping {} queued tasks after shutdown", tasks.size());
+            while (tasks.poll() != null) {
+                completed();
+            }
+        }
+    }
+}
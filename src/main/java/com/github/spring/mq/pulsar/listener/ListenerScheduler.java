@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared listener scheduler
+ *
+ * <p>Runs the receive callbacks and the handlers of all listener and dead letter
+ * containers on one small thread pool instead of dedicated threads per container.
+ * Containers receive asynchronously and keep at most one receive outstanding; each
+ * completed receive is queued on the pool and the next receive is only issued once the
+ * message has been handed off to the container's worker lanes. The lanes are drained
+ * as tasks of the same pool, hold a thread only while they have messages to process
+ * and yield it after a bounded number of messages, so busy topics take turns with
+ * quiet ones instead of monopolizing threads.
+ *
+ * <p>In virtual thread mode every callback runs on its own virtual thread and the
+ * pool size is not used.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public class ListenerScheduler {
+
+    private static final String THREAD_NAME = "pulsar-listener-scheduler";
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private final int threads;
+
+    /**
+     * @param threads        Number of platform threads, 0 for twice the number of processors
+     * @param virtualThreads Whether to run callbacks on virtual threads when supported
+     */
+    public ListenerScheduler(int threads, boolean virtualThreads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("threads must not be negative");
+        }
+        ListenerThreadFactory threadFactory = ListenerThreadFactory.of(THREAD_NAME, virtualThreads);
+        this.virtual = threadFactory.isVirtual();
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors() * 2;
+        this.executor = virtual
+                ? Executors.newCachedThreadPool(threadFactory)
+                : Executors.newFixedThreadPool(this.threads, threadFactory);
+    }
+
+    /**
+     * Executor running container callbacks and draining their worker lanes
+     */
+    public Executor executor() {
+        return executor;
+    }
+
+    /**
+     * Run a task after a delay, used to back off after receive errors
+     *
+     * <p>Tasks coming due after shutdown are dropped.
+     */
+    public void schedule(Runnable task, Duration delay) {
+        CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, executor).execute(task);
+    }
+
+    /**
+     * Whether callbacks run on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Number of platform threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Stop the scheduler and wait for running callbacks to finish
+     *
+     * @param timeout Maximum time to wait
+     * @return true if all callbacks finished within the timeout
+     */
+    public boolean shutdown(Duration timeout) {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
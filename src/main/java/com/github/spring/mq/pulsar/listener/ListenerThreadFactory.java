@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Listener thread factory
+ *
+ * <p>Creates the threads used by listener containers. In virtual thread mode it
+ * delegates to {@code Thread.ofVirtual()}, looked up reflectively so that the starter
+ * still runs on Java 17; when virtual threads are not available it falls back to
+ * daemon platform threads.
+ *
+ * <p>Listener code keeps working unchanged on virtual threads: {@code MsgContext} and
+ * the tracing scope are thread-local and are set and cleared on the thread that
+ * processes the message, and blocking calls such as synchronous sends park the
+ * virtual thread instead of holding a platform thread.
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+public final class ListenerThreadFactory implements ThreadFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListenerThreadFactory.class);
+
+    private static final ThreadFactoryBuilder VIRTUAL_BUILDER = lookupVirtualBuilder();
+
+    private final String name;
+    private final ThreadFactory virtualFactory;
+    private final AtomicInteger index = new AtomicInteger();
+
+    private ListenerThreadFactory(String name, ThreadFactory virtualFactory) {
+        this.name = name;
+        this.virtualFactory = virtualFactory;
+    }
+
+    /**
+     * Create a thread factory
+     *
+     * @param name    Thread name prefix
+     * @param virtual Whether to create virtual threads when supported
+     */
+    public static ListenerThreadFactory of(String name, boolean virtual) {
+        ThreadFactory virtualFactory = null;
+        if (virtual) {
+            if (VIRTUAL_BUILDER != null) {
+                virtualFactory = VIRTUAL_BUILDER.build(name + "-");
+            } else {
+                logger.warn("Virtual threads are not supported by this JVM, using platform threads for {}", name);
+            }
+        }
+        return new ListenerThreadFactory(name, virtualFactory);
+    }
+
+    /**
+     * Whether the running JVM supports virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_BUILDER != null;
+    }
+
+    /**
+     * Whether this factory creates virtual threads
+     */
+    public boolean isVirtual() {
+        return virtualFactory != null;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        if (virtualFactory != null) {
+            return virtualFactory.newThread(r);
+        }
+        Thread thread = new Thread(r, name + "-" + index.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static ThreadFactoryBuilder lookupVirtualBuilder() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Method nameMethod = builderType.getMethod("name", String.class, long.class);
+            Method factoryMethod = builderType.getMethod("factory");
+            return prefix -> {
+                try {
+                    Object builder = ofVirtual.invoke(null);
+                    builder = nameMethod.invoke(builder, prefix, 0L);
+                    return (ThreadFactory) factoryMethod.invoke(builder);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Failed to create virtual thread factory", e);
+                }
+            };
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadFactoryBuilder {
+        ThreadFactory build(String prefix);
+    }
+}
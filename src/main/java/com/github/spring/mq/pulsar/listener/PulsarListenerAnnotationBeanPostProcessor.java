@@ -25,7 +25,10 @@
 package com.github.spring.mq.pulsar.listener;
 
 import com.github.spring.mq.pulsar.annotation.PulsarListener;
+import com.github.spring.mq.pulsar.core.PulsarTemplate;
+import com.github.spring.mq.pulsar.domain.MessageSchema;
 import com.github.spring.mq.pulsar.exception.PulsarClientInitException;
+import com.github.spring.mq.pulsar.exception.PulsarConsumeInitException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
@@ -33,11 +36,17 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Method;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
 
 /**
  * Pulsar listener annotation processor
@@ -47,8 +56,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * <ul>
  *   <li>Scan all methods in beans after Spring container initialization</li>
  *   <li>Find methods annotated with @PulsarListener</li>
- *   <li>Create corresponding Pulsar consumer containers for each listener method</li>
- *   <li>Start consumer containers to begin listening for messages</li>
+ *   <li>Subscribe the consumers of all listener methods in parallel</li>
+ *   <li>Start consumer containers once the application context has been refreshed</li>
  *   <li>Clean up all container resources when application shuts down</li>
  * </ul>
  *
@@ -57,23 +66,26 @@ import java.util.concurrent.ConcurrentHashMap;
  * 1. Spring container creates Bean instances
  * 2. Call postProcessAfterInitialization() method
  * 3. Scan all methods in Bean, look for @PulsarListener annotations
- * 4. Create PulsarListenerContainer for each listener method
- * 5. Start containers to begin consuming messages
- * 6. Call destroy() method to clean up resources when application shuts down
+ * 4. Start subscribing the consumer of each listener topic in the background
+ * 5. Call start() after refresh, wait for all subscriptions and start the containers
+ * 6. Call stop() and destroy() to clean up resources when application shuts down
  * </pre>
  *
  * @author avinzhang
  * @see BeanPostProcessor Spring Bean post-processor interface
  * @see BeanFactoryAware Used to get BeanFactory reference
  * @see DisposableBean Used to clean up resources when Bean is destroyed
+ * @see SmartLifecycle Used to start message delivery after the context has been refreshed
  * @see PulsarListener Listener annotation
  * @see PulsarListenerContainer Listener container
  * @since 1.0.0
  */
-public class PulsarListenerAnnotationBeanPostProcessor implements BeanPostProcessor, BeanFactoryAware, DisposableBean {
+public class PulsarListenerAnnotationBeanPostProcessor implements BeanPostProcessor, BeanFactoryAware, DisposableBean, SmartLifecycle {
 
     private static final Logger logger = LoggerFactory.getLogger(PulsarListenerAnnotationBeanPostProcessor.class);
 
+    private static final Duration DEFAULT_STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
     /**
      * Listener container factory used to create PulsarListenerContainer instances
      * Each method annotated with @PulsarListener will create a corresponding container through this factory
@@ -86,6 +98,28 @@ public class PulsarListenerAnnotationBeanPostProcessor implements BeanPostProces
      */
     private final ConcurrentHashMap<String, PulsarListenerContainer> containers = new ConcurrentHashMap<>();
 
+    /**
+     * Containers whose consumers are still subscribing, started by {@link #start()}
+     */
+    private final Map<String, CompletableFuture<PulsarListenerContainer>> pendingContainers = new LinkedHashMap<>();
+
+    /**
+     * Registered listener methods, subscribed again when the listeners are restarted
+     */
+    private final List<ListenerMethod> listenerMethods = new ArrayList<>();
+
+    /**
+     * Maximum time {@link #start()} waits for all consumers to subscribe
+     */
+    private final Duration startupTimeout;
+
+    private volatile boolean running;
+
+    /**
+     * Whether the listeners have been stopped and must be subscribed again on start
+     */
+    private boolean stopped;
+
     /**
      * Spring Bean factory reference
      * Can be used to get other Bean instances (although not currently used in this implementation)
@@ -98,7 +132,18 @@ public class PulsarListenerAnnotationBeanPostProcessor implements BeanPostProces
      * @param containerFactory Listener container factory used to create listener containers
      */
     public PulsarListenerAnnotationBeanPostProcessor(PulsarListenerContainerFactory containerFactory) {
+        this(containerFactory, DEFAULT_STARTUP_TIMEOUT);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param containerFactory Listener container factory used to create listener containers
+     * @param startupTimeout   Maximum time startup waits for all consumers to subscribe
+     */
+    public PulsarListenerAnnotationBeanPostProcessor(PulsarListenerContainerFactory containerFactory, Duration startupTimeout) {
         this.containerFactory = containerFactory;
+        this.startupTimeout = startupTimeout;
     }
 
     /**
@@ -154,13 +199,13 @@ public class PulsarListenerAnnotationBeanPostProcessor implements BeanPostProces
     /**
      * Process single listener method
      *
-     * <p>Create and start listener container for methods annotated with @PulsarListener.
-     * This method will:
+     * <p>Register the method with the container of its topic. This method will:
      * <ol>
-     *   <li>Create PulsarListenerContainer through container factory</li>
-     *   <li>Add container to management list</li>
-     *   <li>Start container to begin listening for messages</li>
-     *   <li>Log information</li>
+     *   <li>Add the method to the container of the topic if one exists or is subscribing</li>
+     *   <li>Otherwise start subscribing the consumer of the topic in the background</li>
+     *   <li>Create and start the container right away if the listeners have already been started,
+     *       e.g. for lazily initialized beans</li>
+     *   <li>Warm up the Jackson reader of the method's message type while the consumer subscribes</li>
      * </ol>
      *
      * @param bean       Bean instance containing listener method
@@ -168,27 +213,12 @@ public class PulsarListenerAnnotationBeanPostProcessor implements BeanPostProces
      * @param annotation @PulsarListener annotation instance containing configuration information
      * @throws PulsarClientInitException if creating or starting container fails
      */
-    private void processListenerMethod(Object bean, Method method, PulsarListener annotation) {
+    private synchronized void processListenerMethod(Object bean, Method method, PulsarListener annotation) {
         try {
-            PulsarListenerContainer container = containers.get(annotation.topic());
-            if (container == null) {
-                // Create listener container through factory
-                // Container will encapsulate Pulsar Consumer and message processing logic
-                container = containerFactory.createContainer(bean, method, annotation);
-                if (!containers.contains(container)) {
-                    // Add container to management list for subsequent lifecycle management
-                    containers.put(annotation.topic(), container);
-
-                    // Start container, begin listening for messages on specified topic
-                    container.start();
-
-                    // Log successful listener creation
-                    logger.info("Created Pulsar listener for method: {} on topic: {}",
-                            method.getName(), annotation.topic());
-                }
-            } else {
-                container.addMethod(bean, method, annotation);
-            }
+            registerListenerMethod(bean, method, annotation);
+            listenerMethods.add(new ListenerMethod(bean, method, annotation));
+            // The consumer is subscribing in the background by now
+            warmUpMessageType(method, annotation);
         } catch (Exception e) {
             // Log error and throw runtime exception
             logger.error("Failed to create Pulsar listener for method: " + method.getName(), e);
@@ -196,6 +226,123 @@ public class PulsarListenerAnnotationBeanPostProcessor implements BeanPostProces
         }
     }
 
+    /**
+     * Add a listener method to the container of its topic, subscribing the container if needed
+     */
+    private void registerListenerMethod(Object bean, Method method, PulsarListener annotation) {
+        String topic = annotation.topic();
+        PulsarListenerContainer container = containers.get(topic);
+        if (container != null) {
+            container.addMethod(bean, method, annotation);
+            return;
+        }
+        CompletableFuture<PulsarListenerContainer> pending = pendingContainers.get(topic);
+        if (pending != null) {
+            pendingContainers.put(topic, pending.thenApply(subscribed -> {
+                subscribed.addMethod(bean, method, annotation);
+                return subscribed;
+            }));
+            return;
+        }
+        if (running) {
+            container = containerFactory.createContainer(bean, method, annotation);
+            containers.put(topic, container);
+            container.start();
+            logger.info("Created Pulsar listener for method: {} on topic: {}", method.getName(), topic);
+            return;
+        }
+        // Subscribe in the background, the container starts once the context has been refreshed
+        pendingContainers.put(topic, containerFactory.createContainerAsync(bean, method, annotation));
+        logger.debug("Subscribing Pulsar listener for method: {} on topic: {}", method.getName(), topic);
+    }
+
+    /**
+     * Resolve the Jackson reader of a listener's message type, the list element type for
+     * batch listeners, so the first message does not pay for it
+     */
+    private void warmUpMessageType(Method method, PulsarListener annotation) {
+        if (annotation.schema() != MessageSchema.NONE) {
+            return;
+        }
+        PulsarTemplate pulsarTemplate = pulsarTemplate();
+        Class<?> elementType = PulsarListenerContainer.batchElementType(method, annotation.messageType());
+        pulsarTemplate.warmUpMessageType(elementType != null ? elementType : annotation.messageType(),
+                annotation.dataKey());
+    }
+
+    /**
+     * Implementation of SmartLifecycle interface method
+     *
+     * <p>Called after all singletons have been created. Waits for the consumers of all
+     * listeners, and of their dead letter queues, to subscribe and then starts the containers.
+     *
+     * @throws PulsarConsumeInitException if a consumer fails to subscribe or the startup timeout elapses
+     */
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        long begin = System.nanoTime();
+        PulsarTemplate pulsarTemplate = pulsarTemplate();
+        if (stopped) {
+            // Containers closed their consumers when stopped, subscribe every listener again
+            stopped = false;
+            listenerMethods.forEach(listener -> registerListenerMethod(listener.bean(), listener.method(), listener.annotation()));
+        }
+        List<CompletableFuture<?>> subscriptions = new ArrayList<>(pendingContainers.values());
+        subscriptions.add(pulsarTemplate.awaitDeadLetterSubscriptions());
+        try {
+            CompletableFuture.allOf(subscriptions.toArray(new CompletableFuture<?>[0]))
+                    .get(startupTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PulsarConsumeInitException("Interrupted while subscribing Pulsar listeners", e);
+        } catch (ExecutionException e) {
+            throw new PulsarConsumeInitException("Failed to create Pulsar listener", e.getCause());
+        } catch (TimeoutException e) {
+            throw new PulsarConsumeInitException("Timed out after " + startupTimeout + " subscribing "
+                    + pendingContainers.size() + " Pulsar listeners");
+        }
+
+        pendingContainers.forEach((topic, pending) -> {
+            PulsarListenerContainer container = pending.join();
+            containers.put(topic, container);
+            container.start();
+            logger.info("Created Pulsar listener for topic: {}", topic);
+        });
+        pendingContainers.clear();
+        pulsarTemplate.startDeadLetterListeners();
+        running = true;
+        logger.info("Started {} Pulsar listener containers in {} ms", containers.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+    }
+
+    /**
+     * Implementation of SmartLifecycle interface method, stops all containers
+     *
+     * <p>A later {@link #start()} subscribes all registered listeners again.
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        stopped = true;
+        destroy();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start late and stop early, so listeners only run while the rest of the context is available
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 100;
+    }
+
     /**
      * Implementation of DisposableBean interface method
      *
@@ -229,8 +376,35 @@ public class PulsarListenerAnnotationBeanPostProcessor implements BeanPostProces
             }
         }
 
-        // Clear container list
+        // Close consumers that subscribed but never started
+        synchronized (this) {
+            pendingContainers.values().forEach(pending -> pending.thenAccept(PulsarListenerContainer::stop));
+            pendingContainers.clear();
+        }
+
+        // Clear container list, the factory forgets the stopped containers and their closed consumers
         containers.clear();
+        containerFactory.clear();
         logger.info("All Pulsar listener containers have been destroyed");
     }
-}
\ No newline at end of file
+
+    /**
+     * Pulsar template of the container factory
+     *
+     * @throws PulsarConsumeInitException if the factory has no template
+     */
+    private PulsarTemplate pulsarTemplate() {
+        PulsarTemplate pulsarTemplate = containerFactory.getPulsarTemplate();
+        if (pulsarTemplate == null) {
+            throw new PulsarConsumeInitException("PulsarListenerContainerFactory has no PulsarTemplate, "
+                    + "Pulsar listeners cannot be created");
+        }
+        return pulsarTemplate;
+    }
+
+    /**
+     * Listener method registered by post-processing
+     */
+    private record ListenerMethod(Object bean, Method method, PulsarListener annotation) {
+    }
+}
@@ -25,17 +25,35 @@
 package com.github.spring.mq.pulsar.listener;
 
 import com.github.spring.mq.pulsar.annotation.PulsarListener;
+import com.github.spring.mq.pulsar.core.MsgRouteResolver;
+import com.github.spring.mq.pulsar.codec.CodecBinding;
 import com.github.spring.mq.pulsar.core.PulsarTemplate;
 import com.github.spring.mq.pulsar.domain.ListenerType;
+import com.github.spring.mq.pulsar.domain.MessageSchema;
+import com.github.spring.mq.pulsar.domain.MsgContext;
+import com.github.spring.mq.pulsar.domain.MsgMetaKey;
+import com.github.spring.mq.pulsar.exception.PulsarConsumeInitException;
+import com.github.spring.mq.pulsar.exception.PulsarMsgRouteUnsupportedException;
 import com.github.spring.mq.pulsar.tracing.ConsumeExceptionHandlerContainer;
 import org.apache.pulsar.client.api.Consumer;
 import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Messages;
 import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.common.schema.SchemaInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.ReflectionUtils;
+import org.springframework.core.ResolvableType;
 
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
 import java.util.stream.Collectors;
@@ -61,6 +79,30 @@ import static com.github.spring.mq.pulsar.tracing.PulsarMessageHeadersPropagator
  *   <li>EVENT: Event-driven message consumption</li>
  * </ul>
  *
+ * <p>Received messages are handed to the container's own {@link KeyOrderedExecutor},
+ * so user code never runs on the client's listener threads: messages sharing a key
+ * (ordering key, else message key) are processed in order, with a concurrency greater
+ * than one messages with different keys are processed in parallel. The lanes are
+ * drained on the shared {@link ListenerScheduler} and only hold a thread while they
+ * have messages to process. When the dispatch queue is full the consumer is paused and it is resumed
+ * once the backlog has drained to half the queue capacity.
+ *
+ * <p>Listener methods whose first parameter is a {@code List} run in batch mode: the
+ * container receives with {@link Consumer#batchReceiveAsync()}, decodes every message of the
+ * batch, invokes each route handler once with its share of the batch and acknowledges
+ * the batch with a single call. Batches are processed one after another on a single
+ * lane. Batch mode is only available for LOOP listeners.
+ *
+ * <p>LOOP listeners do not own a receiving thread: they keep one asynchronous receive
+ * outstanding, whose callback runs on the shared {@link ListenerScheduler} only to hand
+ * the message off to the worker lanes and issue the next receive. While the worker
+ * lanes are saturated no further receive is issued until the backlog has drained to
+ * half the queue capacity.
+ *
+ * <p>In virtual thread mode the scheduler callbacks and the worker lanes run on
+ * virtual threads (see {@link ListenerThreadFactory}); per-key ordering is unchanged
+ * because every lane is still drained by one task at a time.
+ *
  * @author avinzhang
  * @since 1.0.0
  */
@@ -68,6 +110,12 @@ public class PulsarListenerContainer {
 
     private static final Logger logger = LoggerFactory.getLogger(PulsarListenerContainer.class);
 
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+    /**
+     * Delay before receiving again after a receive error
+     */
+    private static final Duration RECEIVE_ERROR_BACKOFF = Duration.ofSeconds(1);
+
     private final Consumer<byte[]> consumer;
     /**
      * Handler container
@@ -80,16 +128,39 @@ public class PulsarListenerContainer {
 
     private final PulsarTemplate pulsarTemplate;
 
-    private final ExecutorService executor;
+    /**
+     * Shared scheduler running receive callbacks
+     */
+    private final ListenerScheduler scheduler;
+    /**
+     * Worker lanes running the handlers
+     */
+    private final KeyOrderedExecutor dispatcher;
 
     private final ListenerType listenerType;
     private final ConsumeExceptionHandlerContainer consumeExceptionHandlerContainer;
+    /**
+     * Pulsar schema the consumer subscribed with, null if payloads are decoded by the message codecs
+     */
+    private final Schema<?> schema;
+    /**
+     * Whether handlers consume batches of messages
+     */
+    private final boolean batch;
     private volatile boolean running = false;
     /**
-     * key: message route
-     * value: routeKey
+     * Whether the consumer is paused because the dispatch queue is saturated;
+     * LOOP listeners stop issuing receives instead of pausing the consumer
+     */
+    private volatile boolean paused = false;
+    /**
+     * Route resolver for payloads without a msgRoute property, rebuilt whenever a handler is added
      */
-    private Map<String, String> routeToKey = null;
+    private volatile MsgRouteResolver routeResolver;
+    /**
+     * Delivery latency and memory held of chunked messages
+     */
+    private final ChunkedMessageMonitor chunkMonitor = new ChunkedMessageMonitor();
 
 
     public PulsarListenerContainer(Consumer<byte[]> consumer,
@@ -100,31 +171,48 @@ public class PulsarListenerContainer {
                                    String dataKey,
                                    boolean autoAck,
                                    Class<?> messageType,
+                                   Schema<?> schema,
                                    PulsarTemplate pulsarTemplate,
                                    ListenerType listenerType,
-                                   ConsumeExceptionHandlerContainer consumeExceptionHandlerContainer) {
+                                   ConsumeExceptionHandlerContainer consumeExceptionHandlerContainer,
+                                   int concurrency,
+                                   int dispatchQueueCapacity,
+                                   ListenerScheduler scheduler) {
         this.consumer = consumer;
-        this.handlerMap.put(route, new Handler(routeKey, dataKey, bean, method, messageType));
+        Handler handler = Handler.of(routeKey, dataKey, bean, method, messageType, schema, pulsarTemplate);
+        if (handler.batch && ListenerType.EVENT.equals(listenerType)) {
+            throw new PulsarConsumeInitException("Batch listener " + method.getName() + " is not supported in EVENT mode");
+        }
+        this.handlerMap.put(route, handler);
+        this.schema = schema;
+        this.batch = handler.batch;
         this.autoAck = autoAck;
         this.pulsarTemplate = pulsarTemplate;
+        this.routeResolver = buildRouteResolver();
         this.listenerType = listenerType;
         this.consumeExceptionHandlerContainer = consumeExceptionHandlerContainer;
-        this.executor = Executors.newSingleThreadExecutor(r -> {
-            Thread thread = new Thread(r, "pulsar-listener-" + method.getName());
-            thread.setDaemon(true);
-            return thread;
-        });
+        this.scheduler = scheduler;
+        // Batches are acknowledged as a whole and processed on a single lane
+        int lanes = batch ? 1 : Math.max(concurrency, 1);
+        this.dispatcher = new KeyOrderedExecutor(lanes, Math.max(dispatchQueueCapacity, lanes), scheduler.executor());
+        dispatcher.onLowWaterMark(dispatcher.getCapacity() / 2, this::onDrained);
     }
 
     /**
      * Start the listener
+     *
+     * <p>EVENT consumers are subscribed paused and resumed here, LOOP listeners issue their first receive.
      */
     public void start() {
         if (running) {
             return;
         }
         running = true;
-        executor.submit(this::listen);
+        if (ListenerType.EVENT.equals(listenerType)) {
+            consumer.resume();
+        } else {
+            receiveNext();
+        }
         logger.info("Started Pulsar listener for method: {}", handlerMap.keySet());
     }
 
@@ -133,7 +221,9 @@ public class PulsarListenerContainer {
      */
     public void stop() {
         running = false;
-        this.executor.shutdown();
+        if (!dispatcher.shutdown(SHUTDOWN_TIMEOUT)) {
+            logger.warn("Timed out waiting for in-flight messages of listener: {}", handlerMap.keySet());
+        }
         try {
             consumer.close();
         } catch (PulsarClientException e) {
@@ -143,36 +233,169 @@ public class PulsarListenerContainer {
     }
 
     /**
-     * Listen for messages
+     * Issue the next asynchronous receive of a LOOP listener
+     *
+     * <p>Exactly one receive is outstanding while the listener is running and not paused.
      */
-    private void listen() {
-        if (ListenerType.EVENT.equals(listenerType)) {
+    private void receiveNext() {
+        if (!running || ListenerType.EVENT.equals(listenerType)) {
             return;
         }
-        while (running) {
-            try {
-                CompletableFuture<Message<byte[]>> receiveAsync = consumer.receiveAsync();
-                processMessage(receiveAsync);
-            } catch (Exception e) {
-                if (running) {
-                    logger.error("Error receiving message", e);
-                }
+        try {
+            if (batch) {
+                consumer.batchReceiveAsync()
+                        .whenCompleteAsync(this::onBatchReceived, scheduler.executor());
+            } else {
+                consumer.receiveAsync()
+                        .whenCompleteAsync(this::onReceived, scheduler.executor());
             }
+        } catch (RejectedExecutionException e) {
+            logger.warn("Listener scheduler shut down, stopped receiving for listener: {}", handlerMap.keySet());
         }
     }
 
     /**
-     * Process message
+     * Handle a received message and issue the next receive
      */
-    private void processMessage(CompletableFuture<Message<byte[]>> receiveAsync) throws ExecutionException, InterruptedException {
-        Message<byte[]> message = receiveAsync.get();
+    private void onReceived(Message<byte[]> message, Throwable error) {
+        if (!running) {
+            return;
+        }
+        if (error != null) {
+            onReceiveError(error);
+            return;
+        }
+        logger.info("Received pulsar message publishTime: {}, eventTime: {}", message.getPublishTime(), message.getEventTime());
+        if (dispatch(this.consumer, message)) {
+            receiveNext();
+        }
+    }
 
-        long publishTime = message.getPublishTime();
-        long eventTime = message.getEventTime();
+    /**
+     * Handle a received batch and issue the next receive
+     */
+    private void onBatchReceived(Messages<byte[]> messages, Throwable error) {
+        if (!running) {
+            return;
+        }
+        if (error != null) {
+            onReceiveError(error);
+            return;
+        }
+        if (messages.size() == 0 || dispatchBatch(this.consumer, messages)) {
+            receiveNext();
+        }
+    }
 
-        logger.info("Received pulsar message publishTime: {}, eventTime: {}", publishTime, eventTime);
+    /**
+     * Dispatch a batch to the worker lane
+     *
+     * @return false if the dispatch queue is saturated and the consumer has been paused
+     */
+    private boolean dispatchBatch(Consumer<byte[]> consumer, Messages<byte[]> messages) {
+        try {
+            if (!dispatcher.submit(null, () -> processBatch(consumer, messages))) {
+                return !pauseConsumer();
+            }
+        } catch (RejectedExecutionException e) {
+            consumer.negativeAcknowledge(messages);
+        }
+        return true;
+    }
+
+    private void onReceiveError(Throwable error) {
+        logger.error("Error receiving message", error);
+        scheduler.schedule(this::receiveNext, RECEIVE_ERROR_BACKOFF);
+    }
+
+    /**
+     * Dispatch message to the worker lanes
+     *
+     * @return false if the dispatch queue is saturated and the consumer has been paused
+     */
+    public boolean dispatch(Consumer<byte[]> consumer, Message<byte[]> message) {
+        boolean chunked = chunkMonitor.received(message);
+        // Never block the calling thread, pause the consumer instead
+        try {
+            if (!dispatcher.submit(orderingKey(message), () -> processMessage(consumer, message, chunked))) {
+                return !pauseConsumer();
+            }
+        } catch (RejectedExecutionException e) {
+            if (chunked) {
+                chunkMonitor.released(message);
+            }
+            consumer.negativeAcknowledge(message);
+        }
+        return true;
+    }
+
+    private void processMessage(Consumer<byte[]> consumer, Message<byte[]> message, boolean chunked) {
+        try {
+            processMessage(consumer, message);
+        } finally {
+            if (chunked) {
+                chunkMonitor.released(message);
+            }
+        }
+    }
+
+    /**
+     * Pause the consumer while the dispatch queue is saturated
+     *
+     * <p>For LOOP listeners the next receive is deferred to {@link #resumeConsumer()}.
+     *
+     * @return true if this call paused the consumer
+     */
+    private synchronized boolean pauseConsumer() {
+        if (paused) {
+            return false;
+        }
+        paused = true;
+        if (ListenerType.EVENT.equals(listenerType)) {
+            consumer.pause();
+        }
+        logger.debug("Paused consumer of listener {}, {} messages pending", handlerMap.keySet(), dispatcher.getPending());
+        // The backlog may have drained before the consumer was paused
+        if (dispatcher.getPending() <= dispatcher.getCapacity() / 2) {
+            resumeConsumer();
+        }
+        return true;
+    }
 
-        processMessage(this.consumer, message);
+    /**
+     * Called for every handled message while the dispatch queue is at or below its low
+     * water mark, only takes the lock while the consumer is paused
+     */
+    private void onDrained() {
+        if (paused) {
+            resumeConsumer();
+        }
+    }
+
+    /**
+     * Resume the consumer once the dispatch queue has drained
+     */
+    private synchronized void resumeConsumer() {
+        if (!paused) {
+            return;
+        }
+        paused = false;
+        if (ListenerType.EVENT.equals(listenerType)) {
+            consumer.resume();
+        } else {
+            receiveNext();
+        }
+        logger.debug("Resumed consumer of listener {}", handlerMap.keySet());
+    }
+
+    /**
+     * Ordering key of a message, null if the message carries no key
+     */
+    private static String orderingKey(Message<byte[]> message) {
+        if (message.hasOrderingKey()) {
+            return new String(message.getOrderingKey(), StandardCharsets.UTF_8);
+        }
+        return message.hasKey() ? message.getKey() : null;
     }
 
     /**
@@ -182,6 +405,7 @@ public class PulsarListenerContainer {
 
         Object deserializedMessage = null;
         Exception processException = null;
+        byte[] data = null;
 
         try {
             // Execute before-receive interceptors
@@ -193,37 +417,13 @@ public class PulsarListenerContainer {
                 return;
             }
 
-            String msgRoute = extractMsgRoute(message.getProperties());
-            if (msgRoute == null) {
-                msgRoute = pulsarTemplate.deserializeMsgRoute(message.getData(), getRouteToKey());
-            }
-            Handler handler = this.handlerMap.get(msgRoute);
-            if (handler == null) {
-                throw new UnsupportedOperationException("Business type not supported for route: " + msgRoute + ", no corresponding consumer, message content: " + new String(message.getData()));
-            }
-            Method method = handler.method;
-            if (method == null) {
-                throw new UnsupportedOperationException("Business type not supported for route: " + msgRoute + ", no corresponding consumer, message content: " + new String(message.getData()));
-            }
-            String dataKey = handler.dataKey;
-            deserializedMessage = pulsarTemplate.deserialize(message.getData(), dataKey, handler.messageType);
+            // The client copies the payload on every getData() call, fetch it once for routing, decoding and error handling
+            data = message.getData();
+            Handler handler = resolveHandler(message, data);
+            deserializedMessage = handler.binding.decode(data, contentType(message), message.getSchemaVersion());
 
             // Invoke listener method
-            ReflectionUtils.makeAccessible(method);
-
-            // Decide what to pass based on method parameters
-            Class<?>[] parameterTypes = method.getParameterTypes();
-            Object[] args;
-
-            if (parameterTypes.length == 1) {
-                args = new Object[]{deserializedMessage};
-            } else if (parameterTypes.length == 2) {
-                args = new Object[]{deserializedMessage, message};
-            } else {
-                args = new Object[]{};
-            }
-
-            method.invoke(handler.bean, args);
+            handler.invoker.invoke(deserializedMessage, message, consumer, null);
 
             // Auto-acknowledge message
             if (autoAck && consumer.isConnected()) {
@@ -232,47 +432,304 @@ public class PulsarListenerContainer {
         } catch (Exception e) {
             processException = e;
             logger.error("Error processing message", e);
-            consumeExceptionHandlerContainer.handle(consumer, message, processException);
+            consumeExceptionHandlerContainer.handle(consumer, message, data, processException);
         } finally {
             // Execute after-receive interceptors
             pulsarTemplate.applyAfterReceiveInterceptors(message, deserializedMessage, processException);
         }
     }
 
-    public void addMethod(Object bean, Method method,
+    /**
+     * Process a batch of messages
+     *
+     * <p>Messages are decoded one by one, grouped by route and handed to each route
+     * handler in a single call. Messages that fail to decode, or whose handler throws,
+     * are passed to the exception handler individually; all other messages are
+     * acknowledged together.
+     *
+     * <p>Before-receive interceptors run for every message ahead of its handler, and
+     * after-receive interceptors run once the handler has returned, receiving the
+     * exception it threw, if any.
+     */
+    public void processBatch(Consumer<byte[]> consumer, Messages<byte[]> messages) {
+        List<Message<byte[]>> chunked = new ArrayList<>(0);
+        for (Message<byte[]> message : messages) {
+            if (chunkMonitor.received(message)) {
+                chunked.add(message);
+            }
+        }
+        try {
+            processReceivedBatch(consumer, messages);
+        } finally {
+            chunked.forEach(chunkMonitor::released);
+        }
+    }
+
+    private void processReceivedBatch(Consumer<byte[]> consumer, Messages<byte[]> messages) {
+        Map<Handler, Batch> batches = new LinkedHashMap<>();
+        List<MessageId> processed = new ArrayList<>(messages.size());
+        boolean allProcessed = true;
+
+        // Receive contexts of the decoded messages stay open until their handler has run;
+        // they are closed in reverse order so nested tracing scopes unwind correctly
+        List<Received> received = new ArrayList<>(messages.size());
+        try {
+            for (Message<byte[]> message : messages) {
+                Object deserializedMessage = null;
+                byte[] data = null;
+                try {
+                    if (!pulsarTemplate.applyBeforeReceiveInterceptors(message)) {
+                        logger.debug("Message filtered by beforeReceive interceptor");
+                        processed.add(message.getMessageId());
+                        pulsarTemplate.applyAfterReceiveInterceptors(message, null, null);
+                        continue;
+                    }
+                    data = message.getData();
+                    Handler handler = resolveHandler(message, data);
+                    deserializedMessage = handler.binding == null
+                            ? message
+                            : handler.binding.decode(data, contentType(message), message.getSchemaVersion());
+                    Batch group = batches.computeIfAbsent(handler, h -> new Batch(h, messages.size()));
+                    group.add(deserializedMessage, message, data);
+                    group.context = MsgContext.detach();
+                    received.add(new Received(message, deserializedMessage, group, group.context));
+                } catch (Exception e) {
+                    allProcessed = false;
+                    logger.error("Error decoding message of batch", e);
+                    consumeExceptionHandlerContainer.handle(consumer, message, data, e);
+                    pulsarTemplate.applyAfterReceiveInterceptors(message, deserializedMessage, e);
+                }
+            }
+
+            for (Batch group : batches.values()) {
+                // The handler runs in the receive context of the last message of its group
+                MsgContext.attach(group.context);
+                try {
+                    group.handler.invoker.invoke(group.payloads, group.messages, consumer, null);
+                    for (Message<byte[]> message : group.messages) {
+                        processed.add(message.getMessageId());
+                    }
+                } catch (Exception e) {
+                    group.exception = e;
+                    allProcessed = false;
+                    logger.error("Error processing message batch", e);
+                    for (int i = 0; i < group.messages.size(); i++) {
+                        consumeExceptionHandlerContainer.handle(consumer, group.messages.get(i), group.data.get(i), e);
+                    }
+                } finally {
+                    MsgContext.detach();
+                }
+            }
+        } finally {
+            for (int i = received.size() - 1; i >= 0; i--) {
+                Received message = received.get(i);
+                MsgContext.attach(message.context);
+                pulsarTemplate.applyAfterReceiveInterceptors(message.message, message.payload, message.group.exception);
+            }
+            MsgContext.remove();
+        }
+
+        if (autoAck && !processed.isEmpty() && consumer.isConnected()) {
+            try {
+                if (allProcessed) {
+                    consumer.acknowledge(messages);
+                } else {
+                    consumer.acknowledge(processed);
+                }
+            } catch (PulsarClientException e) {
+                logger.error("Error acknowledging message batch", e);
+            }
+        }
+    }
+
+    /**
+     * Content type stamped by the producer, null for messages sent without one
+     */
+    private static String contentType(Message<byte[]> message) {
+        return message.getProperty(MsgMetaKey.CONTENT_TYPE.getCode());
+    }
+
+    /**
+     * Find the handler responsible for a message
+     *
+     * @param data Payload of the message, fetched once by the caller
+     */
+    private Handler resolveHandler(Message<byte[]> message, byte[] data) {
+        String msgRoute = extractMsgRoute(message.getProperties());
+        if (msgRoute == null) {
+            msgRoute = routeResolver.resolve(data, pulsarTemplate.getJsonFactory(contentType(message)));
+        }
+        Handler handler = this.handlerMap.get(msgRoute);
+        if (handler == null) {
+            throw new PulsarMsgRouteUnsupportedException("Business type not supported for route: " + msgRoute + ", no corresponding consumer, message content: " + new String(data, StandardCharsets.UTF_8));
+        }
+        return handler;
+    }
+
+    /**
+     * Chunked messages received by this listener
+     */
+    public ChunkStats getChunkStats() {
+        return chunkMonitor.getStats();
+    }
+
+    public synchronized void addMethod(Object bean, Method method,
                           PulsarListener annotation) {
-        this.handlerMap.put(annotation.msgRoute(),
-                new Handler(annotation.routeKey(),
-                        annotation.dataKey(),
-                        bean, method,
-                        annotation.messageType()));
+        Handler handler = Handler.of(annotation.routeKey(),
+                annotation.dataKey(),
+                bean, method,
+                annotation.messageType(),
+                handlerSchema(method, annotation),
+                pulsarTemplate);
+        if (handler.batch != batch) {
+            throw new PulsarConsumeInitException("Listener " + method.getName() + " on topic " + annotation.topic()
+                    + " cannot mix batch and single message handlers");
+        }
+        this.handlerMap.put(annotation.msgRoute(), handler);
+        this.routeResolver = buildRouteResolver();
     }
 
     /**
-     * Get route key based on route
+     * Schema decoding the payloads of an added handler, null for the message codecs
+     *
+     * <p>Schema versions are only resolved by the schema instance the consumer subscribed with,
+     * schema handlers of a topic therefore share the schema of its consumer.
+     *
+     * @throws PulsarConsumeInitException if the consumer subscribed without the handler's schema
+     */
+    private Schema<?> handlerSchema(Method method, PulsarListener annotation) {
+        if (annotation.schema() == MessageSchema.NONE) {
+            return null;
+        }
+        Schema<?> handlerSchema = annotation.schema().create(payloadType(method, annotation.messageType()));
+        if (schema == null || !sameSchema(schema, handlerSchema)) {
+            throw new PulsarConsumeInitException("Listener " + method.getName() + " on topic " + annotation.topic()
+                    + " uses schema " + annotation.schema() + ", but the consumer of the topic subscribed with "
+                    + (schema == null ? "no schema" : "a different schema"));
+        }
+        return schema;
+    }
+
+    private static boolean sameSchema(Schema<?> schema, Schema<?> other) {
+        SchemaInfo info = schema.getSchemaInfo();
+        SchemaInfo otherInfo = other.getSchemaInfo();
+        return info.getType() == otherInfo.getType() && Arrays.equals(info.getSchema(), otherInfo.getSchema());
+    }
+
+    /**
+     * Type the payloads of a listener method are decoded into, the list element type for batch listeners
+     */
+    static Class<?> payloadType(Method method, Class<?> messageType) {
+        Class<?> elementType = batchElementType(method, messageType);
+        return elementType == null || Message.class.equals(elementType) ? messageType : elementType;
+    }
+
+    /**
+     * Element type of a batch listener method, or null if the method consumes single messages
+     *
+     * <p>A method is a batch listener when its first parameter is a {@code List}. The element
+     * type is taken from the list's generic type, falling back to the annotated message type;
+     * {@code List<Message<byte[]>>} receives the raw messages.
      */
-    private Map<String, String> getRouteToKey() {
-        if (routeToKey != null) {
-            return routeToKey;
+    static Class<?> batchElementType(Method method, Class<?> messageType) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length == 0 || !List.class.equals(parameterTypes[0])
+                || Collection.class.isAssignableFrom(messageType)) {
+            return null;
         }
-        this.routeToKey = handlerMap.entrySet()
+        Class<?> elementType = ResolvableType.forMethodParameter(method, 0).asCollection().resolveGeneric(0);
+        if (elementType == null || Object.class.equals(elementType)) {
+            return messageType;
+        }
+        return elementType;
+    }
+
+    /**
+     * Build the route resolver from the registered handlers
+     */
+    private MsgRouteResolver buildRouteResolver() {
+        Map<String, String> routeToKey = handlerMap.entrySet()
                 .stream().collect(Collectors.toMap(
                         Map.Entry::getKey,
                         entry -> entry.getValue().msgRouteKey));
-        return routeToKey;
+        return pulsarTemplate.createMsgRouteResolver(routeToKey);
     }
 
     /**
      * Handler information
      *
      * @param msgRouteKey Message business key mapping to msgRouteKey field name
-     * @param dataKey     Data key mapping to data field name
-     * @param method      Method mapping key to method
-     * @param messageType Message type
-     */
-    private record Handler(String msgRouteKey, String dataKey,
-                           Object bean,
-                           Method method,
-                           Class<?> messageType) {
+     * @param invoker     Precompiled invoker of the listener method
+     * @param binding     Payload binding of the message type, the list element type for batch
+     *                    handlers; null for batch handlers consuming raw messages
+     * @param batch       Whether the handler consumes a list of messages
+     */
+    private record Handler(String msgRouteKey,
+                           HandlerMethodInvoker invoker,
+                           CodecBinding<?> binding,
+                           boolean batch) {
+
+        static Handler of(String msgRouteKey, String dataKey, Object bean, Method method, Class<?> messageType,
+                          Schema<?> schema, PulsarTemplate pulsarTemplate) {
+            if (schema != null && dataKey != null && !dataKey.isEmpty()) {
+                throw new PulsarConsumeInitException("Listener " + method.getName() + " cannot combine schema "
+                        + schema.getSchemaInfo().getType() + " with dataKey " + dataKey
+                        + ", schema payloads are decoded as a whole");
+            }
+            Class<?> elementType = batchElementType(method, messageType);
+            if (elementType != null) {
+                return new Handler(msgRouteKey,
+                        HandlerMethodInvoker.forListener(bean, method, true),
+                        Message.class.equals(elementType) ? null : binding(pulsarTemplate, schema, dataKey, elementType),
+                        true);
+            }
+            return new Handler(msgRouteKey,
+                    HandlerMethodInvoker.forListener(bean, method, false),
+                    binding(pulsarTemplate, schema, dataKey, messageType),
+                    false);
+        }
+
+        /**
+         * Payload binding of the message codecs, or of the Pulsar schema of the message type
+         */
+        @SuppressWarnings("unchecked")
+        private static <T> CodecBinding<T> binding(PulsarTemplate pulsarTemplate, Schema<?> schema,
+                                                   String dataKey, Class<T> type) {
+            if (schema == null) {
+                return pulsarTemplate.createCodecBinding(dataKey, type);
+            }
+            return pulsarTemplate.createSchemaBinding((Schema<T>) schema, type);
+        }
+    }
+
+    /**
+     * Messages of one batch routed to the same handler
+     */
+    private static final class Batch {
+        private final Handler handler;
+        private final List<Object> payloads;
+        private final List<Message<byte[]>> messages;
+        private final List<byte[]> data;
+        private MsgContext.Context context;
+        private Exception exception;
+
+        Batch(Handler handler, int capacity) {
+            this.handler = handler;
+            this.payloads = new ArrayList<>(capacity);
+            this.messages = new ArrayList<>(capacity);
+            this.data = new ArrayList<>(capacity);
+        }
+
+        void add(Object payload, Message<byte[]> message, byte[] payloadData) {
+            payloads.add(payload);
+            messages.add(message);
+            data.add(payloadData);
+        }
+    }
+
+    /**
+     * A decoded batch message whose after-receive interceptors are still pending
+     */
+    private record Received(Message<byte[]> message, Object payload, Batch group, MsgContext.Context context) {
     }
 }
\ No newline at end of file
@@ -28,12 +28,16 @@ import com.github.spring.mq.pulsar.annotation.PulsarListener;
 import com.github.spring.mq.pulsar.config.PulsarProperties;
 import com.github.spring.mq.pulsar.core.PulsarTemplate;
 import com.github.spring.mq.pulsar.domain.ListenerType;
+import com.github.spring.mq.pulsar.exception.PulsarConsumeInitException;
 import com.github.spring.mq.pulsar.tracing.ConsumeExceptionHandlerContainer;
-import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Schema;
 import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -59,7 +63,7 @@ public class PulsarListenerContainerFactory {
     private final PulsarProperties pulsarProperties;
     private final PulsarTemplate pulsarTemplate;
     private final ListenerType listenerType;
-    private final ConcurrentHashMap<String, PulsarListenerContainer> containerCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<PulsarListenerContainer>> containerCache = new ConcurrentHashMap<>();
     private final ConsumeExceptionHandlerContainer consumeExceptionHandlerContainer;
 
     public PulsarListenerContainerFactory(PulsarProperties pulsarProperties,
@@ -86,22 +90,38 @@ public class PulsarListenerContainerFactory {
      */
     public PulsarListenerContainer createContainer(Object bean, Method method,
                                                    PulsarListener annotation) {
-        if (containerCache.containsKey(annotation.topic())) {
-            PulsarListenerContainer container = containerCache.get(annotation.topic());
-            container.addMethod(bean, method, annotation);
-            return container;
+        try {
+            return createContainerAsync(bean, method, annotation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new PulsarConsumeInitException("Failed to create consumer for topic: " + annotation.topic(), e.getCause());
         }
+    }
 
-        PulsarProperties.Consumer consumerProperty = null;
-        Map<String, PulsarProperties.Consumer> consumerMap = pulsarProperties.getConsumerMap();
-        if (consumerMap == null || consumerMap.isEmpty()) {
-            consumerProperty = pulsarProperties.getConsumer();
-        } else {
-            consumerProperty = consumerMap.get(annotation.topic());
-        }
-        if (consumerProperty == null) {
-            consumerProperty = pulsarProperties.getConsumer();
+    /**
+     * Create listener container without waiting for the consumer to subscribe
+     *
+     * <p>The returned container has not been started; EVENT consumers stay paused until it is.
+     *
+     * @param bean       Bean instance containing the listener method
+     * @param method     Listener method annotated with @PulsarListener
+     * @param annotation PulsarListener annotation containing configuration
+     * @return Container, completes once the consumer has subscribed
+     * @throws IllegalArgumentException if consumer property or topic is null
+     */
+    public CompletableFuture<PulsarListenerContainer> createContainerAsync(Object bean, Method method,
+                                                                           PulsarListener annotation) {
+        CompletableFuture<PulsarListenerContainer> cached = containerCache.get(annotation.topic());
+        if (cached != null) {
+            return cached.thenApply(container -> {
+                container.addMethod(bean, method, annotation);
+                return container;
+            });
         }
+
+        PulsarProperties.Consumer consumerProperty = resolveConsumer(annotation.topic());
         if (consumerProperty == null) {
             throw new IllegalArgumentException("consumer property is null");
         }
@@ -110,21 +130,89 @@ public class PulsarListenerContainerFactory {
             throw new IllegalArgumentException("consumer topic is null");
         }
 
-        Consumer<byte[]> consumer = pulsarTemplate.getOrCreateConsumer(annotation.consumerName(),
-                consumerProperty, listenerType, containerCache);
-
-        PulsarListenerContainer container = new PulsarListenerContainer(consumer,
-                bean,
-                annotation.msgRoute(),
-                method,
-                annotation.routeKey(),
-                annotation.dataKey(),
-                consumerProperty.isAutoAck(),
-                annotation.messageType(),
-                pulsarTemplate,
-                listenerType, consumeExceptionHandlerContainer);
-
-        containerCache.put(annotation.topic(), container);
-        return container;
+        ContainerMessageListener messageListener = ListenerType.EVENT.equals(listenerType)
+                ? new ContainerMessageListener()
+                : null;
+        PulsarProperties.Consumer config = consumerProperty;
+        // Schema listeners subscribe with the schema, the client then resolves the schema versions of their messages
+        Schema<?> schema = annotation.schema().create(PulsarListenerContainer.payloadType(method, annotation.messageType()));
+        CompletableFuture<PulsarListenerContainer> future = pulsarTemplate
+                .getOrCreateConsumerAsync(annotation.consumerName(), config, messageListener, schema)
+                .thenApply(consumer -> {
+                    PulsarListenerContainer container = new PulsarListenerContainer(consumer,
+                            bean,
+                            annotation.msgRoute(),
+                            method,
+                            annotation.routeKey(),
+                            annotation.dataKey(),
+                            config.isAutoAck(),
+                            annotation.messageType(),
+                            schema,
+                            pulsarTemplate,
+                            listenerType, consumeExceptionHandlerContainer,
+                            annotation.concurrency() > 0 ? annotation.concurrency() : config.getConcurrency(),
+                            config.getDispatchQueueCapacity(),
+                            pulsarTemplate.getListenerScheduler());
+
+                    if (messageListener != null) {
+                        messageListener.bind(container);
+                    }
+                    return container;
+                });
+        containerCache.put(annotation.topic(), future);
+        // A failed subscription is not cached so that it can be retried
+        future.whenComplete((container, exception) -> {
+            if (exception != null) {
+                containerCache.remove(annotation.topic(), future);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Consumer configuration of a listener topic, the default consumer configuration if the topic has none
+     */
+    private PulsarProperties.Consumer resolveConsumer(String topic) {
+        Map<String, PulsarProperties.Consumer> consumerMap = pulsarProperties.getConsumerMap();
+        PulsarProperties.Consumer consumerProperty = consumerMap == null || consumerMap.isEmpty()
+                ? null
+                : consumerMap.get(topic);
+        return consumerProperty != null ? consumerProperty : pulsarProperties.getConsumer();
+    }
+
+    /**
+     * Forget the created containers and their consumers
+     *
+     * <p>Called once the containers have been stopped, which closes their consumers; containers
+     * created afterwards subscribe new consumers instead of reusing the closed ones.
+     */
+    public void clear() {
+        containerCache.keySet().forEach(topic -> {
+            PulsarProperties.Consumer consumerProperty = resolveConsumer(topic);
+            if (consumerProperty != null && StringUtils.hasText(consumerProperty.getTopic())) {
+                pulsarTemplate.removeConsumer(consumerProperty.getTopic());
+            }
+        });
+        containerCache.clear();
+    }
+
+    /**
+     * Chunked messages received by the started containers, by topic
+     */
+    public Map<String, ChunkStats> getChunkStats() {
+        Map<String, ChunkStats> stats = new TreeMap<>();
+        containerCache.forEach((topic, container) -> {
+            if (container.isDone() && !container.isCompletedExceptionally()) {
+                stats.put(topic, container.join().getChunkStats());
+            }
+        });
+        return stats;
+    }
+
+    /**
+     * Template whose consumers back the containers
+     */
+    public PulsarTemplate getPulsarTemplate() {
+        return pulsarTemplate;
     }
 }
\ No newline at end of file
@@ -27,8 +27,8 @@ package com.github.spring.mq.pulsar.tracing;
 import com.github.spring.mq.pulsar.annotation.ConsumerExceptionHandler;
 import com.github.spring.mq.pulsar.annotation.ConsumerExceptionResponse;
 import com.github.spring.mq.pulsar.domain.ConsumerExceptionResponseAction;
-import com.github.spring.mq.pulsar.exception.JacksonException;
 import com.github.spring.mq.pulsar.exception.PulsarConsumerLatterException;
+import com.github.spring.mq.pulsar.exception.PulsarMsgRouteUnsupportedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,7 +46,7 @@ import org.slf4j.LoggerFactory;
 public class ConsumeDefaultExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(ConsumeDefaultExceptionHandler.class);
 
-    @ConsumerExceptionHandler({UnsupportedOperationException.class, JacksonException.class})
+    @ConsumerExceptionHandler(PulsarMsgRouteUnsupportedException.class)
     @ConsumerExceptionResponse(ConsumerExceptionResponseAction.ACK)
     public void unsupportedOperationException(Exception exception) {
         logger.error("Error processing message", exception);
@@ -27,14 +27,15 @@ package com.github.spring.mq.pulsar.tracing;
 import com.github.spring.mq.pulsar.annotation.ConsumerExceptionHandler;
 import com.github.spring.mq.pulsar.annotation.ConsumerExceptionResponse;
 import com.github.spring.mq.pulsar.domain.ConsumerExceptionResponseAction;
+import com.github.spring.mq.pulsar.listener.HandlerMethodInvoker;
 import org.apache.pulsar.client.api.Consumer;
 import org.apache.pulsar.client.api.Message;
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
@@ -70,23 +71,24 @@ public class ConsumeExceptionHandlerContainer {
         if (action == null) {
             action = ConsumerExceptionResponseAction.NACK;
         }
+        HandlerMethodInvoker invoker = HandlerMethodInvoker.forExceptionHandler(bean, method);
         if (exceptionList == null || exceptionList.length == 0) {
             if (!handlerMap.containsKey(Exception.class)) {
-                handlerMap.put(Exception.class, new Handler(bean, method, action));
+                handlerMap.put(Exception.class, new Handler(invoker, action));
             } else {
                 // 优先使用用户自定义的异常处理器
                 if (!(bean instanceof ConsumeDefaultExceptionHandler)) {
-                    handlerMap.put(Exception.class, new Handler(bean, method, action));
+                    handlerMap.put(Exception.class, new Handler(invoker, action));
                 }
             }
         } else {
             for (Class<? extends Throwable> exception : exceptionList) {
                 if (!handlerMap.containsKey(exception)) {
-                    handlerMap.put(exception, new Handler(bean, method, action));
+                    handlerMap.put(exception, new Handler(invoker, action));
                 } else {
                     // 优先使用用户自定义的异常处理器
                     if (!(bean instanceof ConsumeDefaultExceptionHandler)) {
-                        handlerMap.put(exception, new Handler(bean, method, action));
+                        handlerMap.put(exception, new Handler(invoker, action));
                     }
                 }
             }
@@ -94,25 +96,19 @@ public class ConsumeExceptionHandlerContainer {
     }
 
     public void handle(Consumer<byte[]> consumer, Message<byte[]> message, Throwable throwable) {
-        Handler handler = getHandler(throwable);
+        handle(consumer, message, message.getData(), throwable);
+    }
 
-        Method method = handler.method;
-
-        ReflectionUtils.makeAccessible(method);
-        Class<?>[] parameterTypes = method.getParameterTypes();
-        Object[] args;
-        if (parameterTypes.length == 1) {
-            args = new Object[]{throwable};
-        } else if (parameterTypes.length == 2) {
-            args = new Object[]{throwable, message};
-        } else if (parameterTypes.length == 3) {
-            args = new Object[]{throwable, consumer, message};
-        } else {
-            args = new Object[]{};
-        }
+    /**
+     * Handle a consume exception of a message whose payload has already been fetched
+     *
+     * @param data Payload of the message, only logged; may be null if it was never fetched
+     */
+    public void handle(Consumer<byte[]> consumer, Message<byte[]> message, byte[] data, Throwable throwable) {
+        Handler handler = getHandler(throwable);
 
         try {
-            method.invoke(handler.bean, args);
+            handler.invoker.invoke(null, message, consumer, throwable);
         } catch (Exception e) {
             logger.error("handle exception error", e);
         }
@@ -120,16 +116,18 @@ public class ConsumeExceptionHandlerContainer {
         if (ConsumerExceptionResponseAction.ACK.equals(handler.action)) {
             ignore(consumer, message);
         } else if (ConsumerExceptionResponseAction.NACK.equals(handler.action)) {
-            negative(consumer, message);
+            negative(consumer, message, data);
         } else if (ConsumerExceptionResponseAction.RECONSUME_LATER.equals(handler.action)) {
-            reconsume(consumer, message);
+            reconsume(consumer, message, data);
         } else {
-            negative(consumer, message);
+            negative(consumer, message, data);
         }
     }
 
-    private void negative(Consumer<byte[]> consumer, Message<byte[]> message) {
-        logger.debug("Consumer re-consume message: {}", new String(message.getData()));
+    private void negative(Consumer<byte[]> consumer, Message<byte[]> message, byte[] data) {
+        if (logger.isDebugEnabled() && data != null) {
+            logger.debug("Consumer re-consume message: {}", new String(data, StandardCharsets.UTF_8));
+        }
         try {
             consumer.negativeAcknowledge(message);
         } catch (Exception ackException) {
@@ -137,8 +135,10 @@ public class ConsumeExceptionHandlerContainer {
         }
     }
 
-    private void reconsume(Consumer<byte[]> consumer, Message<byte[]> msg) {
-        logger.debug("Consumer re-consume message: {}", new String(msg.getData()));
+    private void reconsume(Consumer<byte[]> consumer, Message<byte[]> msg, byte[] data) {
+        if (logger.isDebugEnabled() && data != null) {
+            logger.debug("Consumer re-consume message: {}", new String(data, StandardCharsets.UTF_8));
+        }
         try {
             consumer.reconsumeLater(msg, 60, TimeUnit.SECONDS);
         } catch (PulsarClientException ex) {
@@ -185,11 +185,10 @@ public class ConsumeExceptionHandlerContainer {
     /**
      * Exception handler record
      *
-     * @param bean   The bean instance containing the handler method
-     * @param method The handler method to invoke
-     * @param action The response action to take after handling the exception
+     * @param invoker Precompiled invoker of the handler method
+     * @param action  The response action to take after handling the exception
      */
-    private record Handler(Object bean, Method method,
+    private record Handler(HandlerMethodInvoker invoker,
                            ConsumerExceptionResponseAction action) {
     }
 }
\ No newline at end of file
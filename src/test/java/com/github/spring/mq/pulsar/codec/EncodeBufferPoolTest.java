@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for EncodeBuffer and EncodeBufferPool
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Encode Buffer Pool Tests")
+class EncodeBufferPoolTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should encode like writeValueAsBytes through a reused buffer")
+    void shouldEncodeThroughReusedBuffer() throws Exception {
+        EncodeBufferPool pool = new EncodeBufferPool(1, 16, 64 * 1024);
+        JacksonMessageCodec codec = new JacksonMessageCodec(objectMapper);
+        Map<String, Object> large = Map.of("body", "x".repeat(4096));
+        Map<String, Object> small = Map.of("id", 1);
+
+        EncodeBuffer buffer = pool.acquire();
+        byte[] first = codec.encode(large, buffer);
+        pool.release(buffer);
+        EncodeBuffer reused = pool.acquire();
+        byte[] second = codec.encode(small, reused);
+
+        assertThat(reused).isSameAs(buffer);
+        assertThat(first).isEqualTo(objectMapper.writeValueAsBytes(large));
+        assertThat(second).isEqualTo(objectMapper.writeValueAsBytes(small));
+    }
+
+    @Test
+    @DisplayName("Should hand out payloads that do not share the buffer's array")
+    void shouldCopyPayload() throws Exception {
+        EncodeBuffer buffer = new EncodeBuffer(16);
+        JacksonMessageCodec codec = new JacksonMessageCodec(objectMapper);
+
+        byte[] first = codec.encode("first", buffer);
+        codec.encode("other", buffer);
+
+        assertThat(first).isEqualTo(objectMapper.writeValueAsBytes("first"));
+    }
+
+    @Test
+    @DisplayName("Should drop buffers that grew beyond the retained capacity")
+    void shouldDropOversizedBuffers() {
+        EncodeBufferPool pool = new EncodeBufferPool(2, 16, 1024);
+        EncodeBuffer buffer = pool.acquire();
+        buffer.write(new byte[4096], 0, 4096);
+
+        pool.release(buffer);
+
+        assertThat(pool.getPooled()).isZero();
+        assertThat(pool.acquire()).isNotSameAs(buffer);
+    }
+
+    @Test
+    @DisplayName("Should keep at most the configured number of idle buffers")
+    void shouldBoundIdleBuffers() {
+        EncodeBufferPool pool = new EncodeBufferPool(1, 16, 1024);
+
+        pool.release(new EncodeBuffer(16));
+        pool.release(new EncodeBuffer(16));
+
+        assertThat(pool.getPooled()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.github.spring.mq.pulsar.core.MsgRouteResolver;
+import com.github.spring.mq.pulsar.exception.PulsarProducerConfigException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for MessageCodecRegistry and CodecBinding
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Message Codec Registry Tests")
+class MessageCodecRegistryTest {
+
+    private static final String REVERSED = "application/x-reversed";
+    private static final String CBOR = "application/cbor";
+
+    private MessageCodecRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MessageCodecRegistry(new ObjectMapper(), List.of(new ReversedCodec(),
+                new JacksonMessageCodec(new ObjectMapper(new CBORFactory()), CBOR)));
+    }
+
+    @Test
+    @DisplayName("Should encode strings as UTF-8 text, byte arrays raw and objects as JSON")
+    void shouldResolveBuiltInEncoders() throws Exception {
+        assertThat(registry.getEncoder(String.class, null).getContentType()).isEqualTo(StringMessageCodec.TEXT_PLAIN);
+        assertThat(registry.getEncoder(String.class, null).encode("héllo")).isEqualTo("héllo".getBytes(StandardCharsets.UTF_8));
+        assertThat(registry.getEncoder(byte[].class, null).getContentType()).isEqualTo(ByteArrayMessageCodec.APPLICATION_OCTET_STREAM);
+        assertThat(registry.getEncoder(Map.class, null).getContentType()).isEqualTo(JacksonMessageCodec.APPLICATION_JSON);
+    }
+
+    @Test
+    @DisplayName("Should prefer registered codecs claiming a type and honour a configured content type")
+    void shouldResolveRegisteredEncoders() {
+        assertThat(registry.getEncoder(StringBuilder.class, null).getContentType()).isEqualTo(REVERSED);
+        assertThat(registry.getEncoder(Map.class, REVERSED).getContentType()).isEqualTo(REVERSED);
+        assertThat(registry.getEncoder(String.class, REVERSED).getContentType()).isEqualTo(StringMessageCodec.TEXT_PLAIN);
+        assertThatThrownBy(() -> registry.getEncoder(Map.class, "application/unknown"))
+                .isInstanceOf(PulsarProducerConfigException.class);
+    }
+
+    @Test
+    @DisplayName("Should decode with the codec of the content type and fall back to JSON")
+    void shouldDecodeByContentType() {
+        CodecBinding<String> binding = registry.createBinding(null, String.class);
+
+        assertThat(binding.decode("olleh".getBytes(StandardCharsets.UTF_8), REVERSED)).isEqualTo("hello");
+        assertThat(binding.decode("hello".getBytes(StandardCharsets.UTF_8), StringMessageCodec.TEXT_PLAIN)).isEqualTo("hello");
+        assertThat(binding.decode("hello".getBytes(StandardCharsets.UTF_8), null)).isEqualTo("hello");
+        assertThat(binding.decode("hello".getBytes(StandardCharsets.UTF_8), "application/unknown")).isEqualTo("hello");
+    }
+
+    @Test
+    @DisplayName("Should decode data keys of JSON payloads")
+    void shouldDecodeDataKey() {
+        CodecBinding<Integer> binding = registry.createBinding("data", Integer.class);
+
+        assertThat(binding.decode("{\"data\":42}".getBytes(StandardCharsets.UTF_8), JacksonMessageCodec.APPLICATION_JSON))
+                .isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Should parse payloads with the Jackson factory of their codec")
+    void shouldResolveJsonFactoryByContentType() {
+        assertThat(registry.getJsonFactory(CBOR)).isInstanceOf(CBORFactory.class);
+        assertThat(registry.getJsonFactory(JacksonMessageCodec.APPLICATION_JSON).getFormatName()).isEqualTo("JSON");
+        assertThat(registry.getJsonFactory(REVERSED).getFormatName()).isEqualTo("JSON");
+        assertThat(registry.getJsonFactory(null).getFormatName()).isEqualTo("JSON");
+    }
+
+    @Test
+    @DisplayName("Should route and decode data keys of CBOR payloads")
+    void shouldRouteAndDecodeCborPayload() throws Exception {
+        byte[] payload = new ObjectMapper(new CBORFactory()).writeValueAsBytes(
+                Map.of("type", "created", "data", Map.of("id", "1")));
+        MsgRouteResolver resolver = MsgRouteResolver.of(new ObjectMapper().getFactory(),
+                Map.of("created", "type", "cancelled", "type"));
+
+        assertThat(resolver.resolve(payload, registry.getJsonFactory(CBOR))).isEqualTo("created");
+        assertThat(registry.createBinding("data", String.class).decode(payload, CBOR)).isEqualTo("{\"id\":\"1\"}");
+    }
+
+    /**
+     * Codec writing the characters of a value in reverse order
+     */
+    private static class ReversedCodec implements MessageCodec {
+
+        @Override
+        public String getContentType() {
+            return REVERSED;
+        }
+
+        @Override
+        public boolean canEncode(Class<?> type) {
+            return StringBuilder.class.equals(type);
+        }
+
+        @Override
+        public byte[] encode(Object value) {
+            return new StringBuilder(value.toString()).reverse().toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public <T> MessageDecoder<T> decoder(Class<T> type, String dataKey) {
+            return data -> type.cast(new StringBuilder(new String(data, StandardCharsets.UTF_8)).reverse().toString());
+        }
+    }
+}
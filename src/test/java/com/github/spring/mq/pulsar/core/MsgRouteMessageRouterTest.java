@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.github.spring.mq.pulsar.domain.MsgMetaKey;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.TopicMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for MsgRouteMessageRouter
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Msg Route Message Router Tests")
+class MsgRouteMessageRouterTest {
+
+    private MsgRouteMessageRouter router;
+    private TopicMetadata metadata;
+
+    @BeforeEach
+    void setUp() {
+        router = new MsgRouteMessageRouter();
+        metadata = mock(TopicMetadata.class);
+        when(metadata.numPartitions()).thenReturn(8);
+    }
+
+    @Test
+    @DisplayName("Should route unkeyed messages of the same route to the same partition")
+    void shouldRouteByMsgRoute() {
+        int first = router.choosePartition(message("orders", null), metadata);
+        int second = router.choosePartition(message("orders", null), metadata);
+
+        assertThat(first).isEqualTo(second).isEqualTo(Math.floorMod("orders".hashCode(), 8));
+    }
+
+    @Test
+    @DisplayName("Should route messages without route by key")
+    void shouldRouteByKey() {
+        int first = router.choosePartition(message(null, "key-1"), metadata);
+        int second = router.choosePartition(message(null, "key-1"), metadata);
+
+        assertThat(first).isEqualTo(second).isEqualTo(Math.floorMod("key-1".hashCode(), 8));
+    }
+
+    @Test
+    @DisplayName("Should spread the keys of one route over the partitions by key")
+    void shouldRouteKeysOfOneRouteByKey() {
+        Set<Integer> partitions = new HashSet<>();
+        for (int i = 0; i < 32; i++) {
+            String key = "key-" + i;
+            int partition = router.choosePartition(message("orders", key), metadata);
+
+            assertThat(partition).isEqualTo(Math.floorMod(key.hashCode(), 8));
+            partitions.add(partition);
+        }
+
+        assertThat(partitions).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("Should spread messages without route and key round-robin")
+    void shouldRouteRoundRobin() {
+        Set<Integer> partitions = new HashSet<>();
+        for (int i = 0; i < 8; i++) {
+            partitions.add(router.choosePartition(message(null, null), metadata));
+        }
+
+        assertThat(partitions).hasSize(8);
+    }
+
+    @Test
+    @DisplayName("Should always choose partition 0 on non-partitioned topics")
+    void shouldChooseFirstPartitionOfSingleTopic() {
+        when(metadata.numPartitions()).thenReturn(1);
+
+        assertThat(router.choosePartition(message("orders", "key-1"), metadata)).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Message<byte[]> message(String msgRoute, String key) {
+        Message<byte[]> message = mock(Message.class);
+        when(message.getProperty(MsgMetaKey.MSG_ROUTE.getCode())).thenReturn(msgRoute);
+        when(message.hasKey()).thenReturn(key != null);
+        when(message.getKey()).thenReturn(key);
+        return message;
+    }
+}
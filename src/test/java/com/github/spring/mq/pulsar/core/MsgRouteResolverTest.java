@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.github.spring.mq.pulsar.exception.PulsarConsumerNotExistException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for MsgRouteResolver
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Message Route Resolver Tests")
+class MsgRouteResolverTest {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    @DisplayName("Should return the only route without parsing")
+    void shouldReturnSingleRoute() {
+        MsgRouteResolver resolver = MsgRouteResolver.of(jsonFactory, Map.of("order", "msgRoute"));
+
+        assertThat(resolver.resolve("not json".getBytes(StandardCharsets.UTF_8))).isEqualTo("order");
+    }
+
+    @Test
+    @DisplayName("Should find route after skipping nested content")
+    void shouldFindRouteAfterNestedContent() {
+        MsgRouteResolver resolver = MsgRouteResolver.of(jsonFactory,
+                Map.of("order", "msgRoute", "user", "msgRoute"));
+        String json = "{\"data\":{\"msgRoute\":\"order\",\"items\":[1,2,{\"a\":\"b\"}]},\"msgRoute\":\"user\"}";
+
+        assertThat(resolver.resolve(json.getBytes(StandardCharsets.UTF_8))).isEqualTo("user");
+    }
+
+    @Test
+    @DisplayName("Should support different route keys per route")
+    void shouldSupportDifferentRouteKeys() {
+        MsgRouteResolver resolver = MsgRouteResolver.of(jsonFactory,
+                Map.of("order", "type", "user", "kind"));
+
+        assertThat(resolver.resolve("{\"kind\":\"user\",\"type\":\"x\"}".getBytes(StandardCharsets.UTF_8)))
+                .isEqualTo("user");
+    }
+
+    @Test
+    @DisplayName("Should stop at the first matching route")
+    void shouldStopAtFirstMatch() {
+        MsgRouteResolver resolver = MsgRouteResolver.of(jsonFactory,
+                Map.of("order", "msgRoute", "user", "msgRoute"));
+        // Trailing garbage is never reached
+        byte[] data = "{\"msgRoute\":\"order\", broken".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(resolver.resolve(data)).isEqualTo("order");
+    }
+
+    @Test
+    @DisplayName("Should return empty route when nothing matches")
+    void shouldReturnEmptyRouteWhenNoMatch() {
+        MsgRouteResolver resolver = MsgRouteResolver.of(jsonFactory,
+                Map.of("order", "msgRoute", "user", "msgRoute"));
+
+        assertThat(resolver.resolve("{\"msgRoute\":\"other\",\"n\":1}".getBytes(StandardCharsets.UTF_8))).isEmpty();
+        assertThat(resolver.resolve("{\"msgRoute\":1}".getBytes(StandardCharsets.UTF_8))).isEmpty();
+        assertThat(resolver.resolve("[1,2]".getBytes(StandardCharsets.UTF_8))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fail on malformed payload")
+    void shouldFailOnMalformedPayload() {
+        MsgRouteResolver resolver = MsgRouteResolver.of(jsonFactory,
+                Map.of("order", "msgRoute", "user", "msgRoute"));
+
+        assertThatThrownBy(() -> resolver.resolve("{\"a\":".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(PulsarConsumerNotExistException.class);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.spring.mq.pulsar.exception.JacksonException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for PayloadBinding
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Payload Binding Tests")
+class PayloadBindingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should bind object after skipping preceding fields")
+    void shouldBindObjectAfterSkippedFields() {
+        PayloadBinding<Item> binding = new PayloadBinding<>(objectMapper, "data", Item.class);
+        byte[] data = "{\"meta\":{\"tags\":[1,{\"a\":\"b\"}]},\"data\":{\"name\":\"book\",\"count\":3},\"tail\":1}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        Item item = binding.decode(data);
+
+        assertThat(item.getName()).isEqualTo("book");
+        assertThat(item.getCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should copy structured data key as compact JSON string")
+    void shouldCopyStructuredValueAsString() {
+        PayloadBinding<String> binding = new PayloadBinding<>(objectMapper, "data", String.class);
+
+        String result = binding.decode("{\"data\":{ \"name\" : \"book\", \"tags\":[1, 2] }}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(result).isEqualTo("{\"name\":\"book\",\"tags\":[1,2]}");
+    }
+
+    @Test
+    @DisplayName("Should return scalar data key as text")
+    void shouldReturnScalarAsText() {
+        PayloadBinding<String> stringBinding = new PayloadBinding<>(objectMapper, "data", String.class);
+        PayloadBinding<byte[]> bytesBinding = new PayloadBinding<>(objectMapper, "data", byte[].class);
+        byte[] data = "{\"data\":\"hello\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(stringBinding.decode(data)).isEqualTo("hello");
+        assertThat(bytesBinding.decode(data)).isEqualTo("hello".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should coerce textual numbers")
+    void shouldCoerceTextualNumbers() {
+        PayloadBinding<Integer> binding = new PayloadBinding<>(objectMapper, "data", Integer.class);
+
+        assertThat(binding.decode("{\"data\":\"42\"}".getBytes(StandardCharsets.UTF_8))).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Should fail when data key is missing")
+    void shouldFailWhenDataKeyMissing() {
+        PayloadBinding<String> binding = new PayloadBinding<>(objectMapper, "data", String.class);
+
+        assertThatThrownBy(() -> binding.decode("{\"other\":{\"data\":1}}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(JacksonException.class)
+                .hasMessageContaining("Data key 'data' not found in message");
+        assertThatThrownBy(() -> binding.decode("[1,2]".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(JacksonException.class)
+                .hasMessageContaining("Data key 'data' not found in message");
+    }
+
+    @Test
+    @DisplayName("Should decode whole payload without data key")
+    void shouldDecodeWholePayload() {
+        PayloadBinding<Item> binding = new PayloadBinding<>(objectMapper, "", Item.class);
+
+        Item item = binding.decode("{\"name\":\"pen\",\"count\":1}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(item.getName()).isEqualTo("pen");
+    }
+
+    public static class Item {
+        private String name;
+        private int count;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.github.spring.mq.pulsar.exception.PulsarProducerInitException;
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ProducerCache
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Producer Cache Tests")
+class ProducerCacheTest {
+
+    private final Map<String, Producer<byte[]>> producers = new HashMap<>();
+    private ProducerCache cache;
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse the producer of a topic and count hits and misses")
+    void shouldReuseProducer() {
+        cache = new ProducerCache(this::create, 10, Duration.ZERO);
+
+        ProducerCache.Lease first = cache.acquire("a");
+        first.release();
+        ProducerCache.Lease second = cache.acquire("a");
+        second.release();
+
+        assertThat(second.get()).isSameAs(first.get());
+        assertThat(cache.getStats()).isEqualTo(new ProducerCache.Stats(1, 1, 0, 1));
+    }
+
+    @Test
+    @DisplayName("Should close the least recently used idle producer when full")
+    void shouldEvictLeastRecentlyUsed() throws InterruptedException {
+        cache = new ProducerCache(this::create, 2, Duration.ZERO);
+
+        cache.acquire("a").release();
+        Thread.sleep(2);
+        cache.acquire("b").release();
+        Thread.sleep(2);
+        cache.acquire("a").release();
+        cache.acquire("c").release();
+
+        assertThat(cache.isReady("a")).isTrue();
+        assertThat(cache.isReady("b")).isFalse();
+        assertThat(cache.isReady("c")).isTrue();
+        assertThat(cache.getStats().evictions()).isEqualTo(1);
+        verify(producers.get("b")).closeAsync();
+    }
+
+    @Test
+    @DisplayName("Should not evict a producer with a send in flight")
+    void shouldNotEvictProducerInUse() {
+        cache = new ProducerCache(this::create, 1, Duration.ZERO);
+
+        ProducerCache.Lease inFlight = cache.acquire("a");
+        cache.acquire("b").release();
+
+        assertThat(cache.isReady("a")).isTrue();
+        verify(producers.get("a"), never()).closeAsync();
+
+        inFlight.release();
+        cache.acquire("c").release();
+
+        assertThat(cache.size()).isEqualTo(1);
+        verify(producers.get("a")).closeAsync();
+    }
+
+    @Test
+    @DisplayName("Should close idle producers and recreate them on the next send")
+    void shouldEvictIdleProducers() throws InterruptedException {
+        cache = new ProducerCache(this::create, 0, Duration.ofMillis(1));
+
+        cache.acquire("a").release();
+        Thread.sleep(5);
+        cache.evictIdle();
+
+        assertThat(cache.size()).isZero();
+        verify(producers.get("a")).closeAsync();
+
+        ProducerCache.Lease lease = cache.acquire("a");
+        assertThat(lease.get()).isNotNull();
+        assertThat(cache.getStats().misses()).isEqualTo(2);
+        lease.release();
+    }
+
+    @Test
+    @DisplayName("Should not cache failed producer creations")
+    void shouldNotCacheFailures() {
+        cache = new ProducerCache(topic -> CompletableFuture.failedFuture(new PulsarClientException("broker unavailable")),
+                10, Duration.ZERO);
+
+        ProducerCache.Lease lease = cache.acquire("a");
+
+        assertThatThrownBy(lease::get)
+                .isInstanceOf(PulsarProducerInitException.class)
+                .hasCauseInstanceOf(PulsarClientException.class);
+        lease.release();
+        assertThat(cache.size()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Producer<byte[]>> create(String topic) {
+        Producer<byte[]> producer = mock(Producer.class);
+        when(producer.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
+        producers.put(topic, producer);
+        return CompletableFuture.completedFuture(producer);
+    }
+}
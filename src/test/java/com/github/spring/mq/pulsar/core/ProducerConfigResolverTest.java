@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.github.spring.mq.pulsar.config.PulsarProperties;
+import com.github.spring.mq.pulsar.exception.PulsarProducerConfigException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for ProducerConfigResolver
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Producer Config Resolver Tests")
+class ProducerConfigResolverTest {
+
+    @Test
+    @DisplayName("Should prefer exact topics over rules")
+    void shouldPreferExactTopic() {
+        PulsarProperties properties = properties("orders-*", "orders-eu", "regex:orders-\\d+");
+        ProducerConfigResolver resolver = new ProducerConfigResolver(properties);
+
+        assertThat(resolver.resolve("orders-eu")).isSameAs(properties.getProducerMap().get("orders-eu"));
+    }
+
+    @Test
+    @DisplayName("Should match globs before regular expressions and longer globs first")
+    void shouldOrderRules() {
+        PulsarProperties properties = properties("regex:orders-\\d+", "orders-*", "orders-1*", "tenant-?-events");
+        ProducerConfigResolver resolver = new ProducerConfigResolver(properties);
+
+        assertThat(resolver.resolve("orders-123")).isSameAs(properties.getProducerMap().get("orders-1*"));
+        assertThat(resolver.resolve("orders-9")).isSameAs(properties.getProducerMap().get("orders-*"));
+        assertThat(resolver.resolve("tenant-a-events")).isSameAs(properties.getProducerMap().get("tenant-?-events"));
+        assertThatThrownBy(() -> resolver.resolve("tenant-ab-events"))
+                .isInstanceOf(PulsarProducerConfigException.class);
+    }
+
+    @Test
+    @DisplayName("Should match regular expression rules against the whole topic")
+    void shouldMatchRegex() {
+        PulsarProperties properties = properties("regex:tenant-\\d+-events");
+        ProducerConfigResolver resolver = new ProducerConfigResolver(properties);
+
+        assertThat(resolver.resolve("tenant-42-events")).isSameAs(properties.getProducerMap().get("regex:tenant-\\d+-events"));
+        assertThatThrownBy(() -> resolver.resolve("tenant-42-events-dlq"))
+                .isInstanceOf(PulsarProducerConfigException.class);
+    }
+
+    @Test
+    @DisplayName("Should treat glob characters other than wildcards literally")
+    void shouldQuoteGlobLiterals() {
+        ProducerConfigResolver resolver = new ProducerConfigResolver(properties("a.b-*"));
+
+        assertThat(resolver.resolve("a.b-1")).isNotNull();
+        assertThatThrownBy(() -> resolver.resolve("axb-1")).isInstanceOf(PulsarProducerConfigException.class);
+    }
+
+    @Test
+    @DisplayName("Should use rules of the default producer when no producer map is configured")
+    void shouldResolveDefaultProducer() {
+        PulsarProperties properties = new PulsarProperties();
+        properties.getProducer().setTopic("events-*");
+        ProducerConfigResolver resolver = new ProducerConfigResolver(properties);
+
+        assertThat(resolver.resolve("events-2024")).isSameAs(properties.getProducer());
+        assertThat(resolver.resolve(null)).isSameAs(properties.getProducer());
+        assertThatThrownBy(() -> resolver.resolve("orders")).isInstanceOf(PulsarProducerConfigException.class);
+    }
+
+    @Test
+    @DisplayName("Should identify topic rules")
+    void shouldIdentifyPatterns() {
+        assertThat(ProducerConfigResolver.isPattern("orders-*")).isTrue();
+        assertThat(ProducerConfigResolver.isPattern("orders-?")).isTrue();
+        assertThat(ProducerConfigResolver.isPattern("regex:orders")).isTrue();
+        assertThat(ProducerConfigResolver.isPattern("orders")).isFalse();
+        assertThat(ProducerConfigResolver.isPattern(null)).isFalse();
+    }
+
+    private static PulsarProperties properties(String... topics) {
+        PulsarProperties properties = new PulsarProperties();
+        Map<String, PulsarProperties.Producer> producerMap = new LinkedHashMap<>();
+        for (String topic : topics) {
+            PulsarProperties.Producer producer = new PulsarProperties.Producer();
+            producer.setTopic(topic);
+            producerMap.put(topic, producer);
+        }
+        properties.setProducerMap(producerMap);
+        properties.setProducer(null);
+        return properties;
+    }
+}
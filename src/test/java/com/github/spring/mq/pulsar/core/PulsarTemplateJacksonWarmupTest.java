@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.spring.mq.pulsar.config.PulsarProperties;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for Jackson warm-up in PulsarTemplate
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Pulsar Template Jackson Warm-up Tests")
+class PulsarTemplateJacksonWarmupTest {
+
+    private PulsarProperties pulsarProperties;
+    private PulsarTemplate pulsarTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Sample.instances.set(0);
+        pulsarProperties = new PulsarProperties();
+        pulsarTemplate = new PulsarTemplate(mock(PulsarClient.class), pulsarProperties, new ObjectMapper(), null, null);
+    }
+
+    @Test
+    @DisplayName("Should resolve readers and writers without building samples by default")
+    void shouldWarmUpWithoutRoundTrip() {
+        assertThat(pulsarTemplate.warmUpMessageType(Sample.class, null)).isTrue();
+
+        assertThat(Sample.instances).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should encode and decode a sample through the data key binding on round-trip")
+    void shouldRoundTripThroughDataKey() {
+        pulsarProperties.getJacksonWarmup().setRoundTrip(true);
+
+        assertThat(pulsarTemplate.warmUpMessageType(Sample.class, "data")).isTrue();
+
+        // One sample built from an empty object, one decoded from the envelope
+        assertThat(Sample.instances).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should warm up each type and data key once")
+    void shouldWarmUpOnce() {
+        pulsarProperties.getJacksonWarmup().setRoundTrip(true);
+
+        pulsarTemplate.warmUpMessageType(Sample.class, null);
+        pulsarTemplate.warmUpMessageType(Sample.class, "");
+
+        assertThat(Sample.instances).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should skip types decoded without Jackson and disabled warm-up")
+    void shouldSkipSimpleTypesAndDisabledWarmup() {
+        assertThat(pulsarTemplate.warmUpMessageType(String.class, null)).isFalse();
+        assertThat(pulsarTemplate.warmUpMessageType(byte[].class, null)).isFalse();
+        assertThat(pulsarTemplate.warmUpMessageType(Long.class, null)).isFalse();
+
+        pulsarProperties.getJacksonWarmup().setEnabled(false);
+        assertThat(pulsarTemplate.warmUpMessageType(Sample.class, null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should warm up the distinct warm-up types of all producers")
+    void shouldWarmUpProducerTypes() {
+        pulsarProperties.getProducer().setWarmupTypes(List.of(Sample.class));
+        PulsarProperties.Producer orders = new PulsarProperties.Producer();
+        orders.setTopic("orders");
+        orders.setWarmupTypes(List.of(Sample.class, Map.class, String.class));
+        pulsarProperties.setProducerMap(Map.of("orders", orders));
+
+        assertThat(pulsarTemplate.warmUpProducerTypes()).isEqualTo(2);
+    }
+
+    public static class Sample {
+        static final AtomicInteger instances = new AtomicInteger();
+
+        public String id;
+        public List<String> tags;
+
+        public Sample() {
+            instances.incrementAndGet();
+        }
+    }
+}
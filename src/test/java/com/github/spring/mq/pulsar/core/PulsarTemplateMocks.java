@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.spring.mq.pulsar.config.PulsarProperties;
+import org.apache.pulsar.client.api.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Mocked Pulsar client for PulsarTemplate tests
+ *
+ * <p>The client hands out one producer builder, which creates one producer whose message
+ * builder sends successfully with {@link #messageId}. Tests re-stub the mocks for the
+ * failures and delays they exercise and configure {@link #pulsarProperties} before
+ * creating the template.
+ *
+ * @param <T> Value type of the producer
+ * @author avinzhang
+ * @since 1.2.23
+ */
+final class PulsarTemplateMocks<T> {
+
+    final PulsarClient pulsarClient = mock(PulsarClient.class);
+    final ProducerBuilder<T> producerBuilder;
+    final Producer<T> producer;
+    final TypedMessageBuilder<T> messageBuilder;
+    final MessageId messageId = mock(MessageId.class);
+    final PulsarProperties pulsarProperties = new PulsarProperties();
+
+    @SuppressWarnings("unchecked")
+    private PulsarTemplateMocks(String topic) {
+        producerBuilder = mock(ProducerBuilder.class, RETURNS_SELF);
+        producer = mock(Producer.class);
+        messageBuilder = mock(TypedMessageBuilder.class, RETURNS_SELF);
+        when(producerBuilder.createAsync()).thenReturn(CompletableFuture.completedFuture(producer));
+        when(producer.newMessage()).thenReturn(messageBuilder);
+        when(producer.flushAsync()).thenReturn(CompletableFuture.completedFuture(null));
+        try {
+            when(messageBuilder.send()).thenReturn(messageId);
+        } catch (PulsarClientException e) {
+            throw new IllegalStateException(e);
+        }
+        when(messageBuilder.sendAsync()).thenReturn(CompletableFuture.completedFuture(messageId));
+        pulsarProperties.getProducer().setTopic(topic);
+    }
+
+    /**
+     * Mocks of the byte[] producers of a topic
+     */
+    static PulsarTemplateMocks<byte[]> bytes(String topic) {
+        PulsarTemplateMocks<byte[]> mocks = new PulsarTemplateMocks<>(topic);
+        when(mocks.pulsarClient.newProducer()).thenReturn(mocks.producerBuilder);
+        return mocks;
+    }
+
+    /**
+     * Mocks of the schema producers of a topic, any schema gets the same producer builder
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> PulsarTemplateMocks<T> schema(String topic) {
+        PulsarTemplateMocks<T> mocks = new PulsarTemplateMocks<>(topic);
+        when(mocks.pulsarClient.newProducer(any(Schema.class))).thenReturn((ProducerBuilder) mocks.producerBuilder);
+        return mocks;
+    }
+
+    /**
+     * Another producer sending through the shared message builder
+     */
+    @SuppressWarnings("unchecked")
+    Producer<T> newProducer() {
+        Producer<T> another = mock(Producer.class);
+        when(another.newMessage()).thenReturn(messageBuilder);
+        return another;
+    }
+
+    /**
+     * Create a template on the mocked client with the current properties
+     */
+    PulsarTemplate template() {
+        return new PulsarTemplate(pulsarClient, pulsarProperties, new ObjectMapper(), null, null);
+    }
+}
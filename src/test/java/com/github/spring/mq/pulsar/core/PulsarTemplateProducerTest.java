@@ -0,0 +1,720 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.github.spring.mq.pulsar.config.PulsarInterceptorConfiguration;
+import com.github.spring.mq.pulsar.config.PulsarProperties;
+import com.github.spring.mq.pulsar.domain.MsgContext;
+import com.github.spring.mq.pulsar.domain.MsgMetaKey;
+import com.github.spring.mq.pulsar.exception.PulsarProducerInitException;
+import com.github.spring.mq.pulsar.exception.PulsarProducerSendException;
+import com.github.spring.mq.pulsar.interceptor.MetaMessageInterceptor;
+import com.github.spring.mq.pulsar.interceptor.PulsarMessageInterceptor;
+import org.apache.pulsar.client.api.*;
+import org.apache.pulsar.common.schema.SchemaInfo;
+import org.apache.pulsar.common.schema.SchemaType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the producers of PulsarTemplate on a mocked Pulsar client
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Pulsar Template Producer Tests")
+class PulsarTemplateProducerTest {
+
+    private static final String TOPIC = "producer-topic";
+    private static final String LARGE = "x".repeat(2048);
+
+    private PulsarTemplateMocks<byte[]> mocks;
+    private PulsarProperties pulsarProperties;
+
+    @BeforeEach
+    void setUp() {
+        mocks = PulsarTemplateMocks.bytes(TOPIC);
+        pulsarProperties = mocks.pulsarProperties;
+    }
+
+    @Nested
+    @DisplayName("Async Producer Creation")
+    class AsyncProducer {
+
+        @Test
+        @DisplayName("Should queue sends against the pending producer instead of blocking")
+        void shouldQueueSendsWhileProducerIsCreated() {
+            CompletableFuture<Producer<byte[]>> creation = new CompletableFuture<>();
+            when(mocks.producerBuilder.createAsync()).thenReturn(creation);
+            PulsarTemplate template = mocks.template();
+
+            CompletableFuture<MessageId> first = template.sendAsync(TOPIC, "first");
+            CompletableFuture<MessageId> second = template.sendAsync(TOPIC, "second");
+
+            assertThat(first).isNotDone();
+            assertThat(second).isNotDone();
+            verify(mocks.producerBuilder, times(1)).createAsync();
+
+            creation.complete(mocks.producer);
+
+            assertThat(first.join()).isSameAs(mocks.messageId);
+            assertThat(second.join()).isSameAs(mocks.messageId);
+            verify(mocks.messageBuilder, times(2)).sendAsync();
+        }
+
+        @Test
+        @DisplayName("Should evict a failed producer creation so the next send retries")
+        void shouldRetryAfterFailedCreation() {
+            when(mocks.producerBuilder.createAsync()).thenReturn(
+                    CompletableFuture.failedFuture(new PulsarClientException("broker unavailable")),
+                    CompletableFuture.completedFuture(mocks.producer));
+            PulsarTemplate template = mocks.template();
+
+            CompletableFuture<MessageId> failed = template.sendAsync(TOPIC, "first");
+
+            assertThatThrownBy(failed::join)
+                    .isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(PulsarProducerInitException.class);
+            assertThat(template.sendAsync(TOPIC, "second").join()).isNotNull();
+            verify(mocks.producerBuilder, times(2)).createAsync();
+        }
+
+        @Test
+        @DisplayName("Should throw the creation failure from synchronous sends")
+        void shouldThrowFromSynchronousSend() {
+            when(mocks.producerBuilder.createAsync()).thenReturn(
+                    CompletableFuture.failedFuture(new PulsarClientException("broker unavailable")));
+            PulsarTemplate template = mocks.template();
+
+            assertThatThrownBy(() -> template.send(TOPIC, "message"))
+                    .isInstanceOf(PulsarProducerInitException.class)
+                    .hasCauseInstanceOf(PulsarClientException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Producer Warm-up")
+    class Warmup {
+
+        @Test
+        @DisplayName("Should create the producers of all mapped topics before any send")
+        @SuppressWarnings("unchecked")
+        void shouldWarmUpProducerMap() {
+            pulsarProperties.setProducerMap(producerMap("order", "user", "log"));
+            when(mocks.producerBuilder.createAsync())
+                    .thenAnswer(invocation -> CompletableFuture.completedFuture(mock(Producer.class)));
+            PulsarTemplate template = mocks.template();
+
+            Map<String, Boolean> readiness = template.warmUpProducers(Duration.ofSeconds(1));
+
+            assertThat(readiness).containsExactly(entry("order", true), entry("user", true), entry("log", true));
+            assertThat(template.isProducerReady("user")).isTrue();
+            verify(mocks.producerBuilder, times(3)).createAsync();
+        }
+
+        @Test
+        @DisplayName("Should report producers not created within the timeout and finish them in the background")
+        void shouldReportSlowProducers() {
+            pulsarProperties.setProducerMap(producerMap("order", "log"));
+            CompletableFuture<Producer<byte[]>> slow = new CompletableFuture<>();
+            when(mocks.producerBuilder.createAsync())
+                    .thenReturn(CompletableFuture.completedFuture(mocks.producer), slow);
+            PulsarTemplate template = mocks.template();
+
+            Map<String, Boolean> readiness = template.warmUpProducers(Duration.ofMillis(50));
+
+            assertThat(readiness).containsExactly(entry("order", true), entry("log", false));
+            slow.complete(mocks.newProducer());
+            assertThat(template.isProducerReady("log")).isTrue();
+            verify(mocks.producerBuilder, times(2)).createAsync();
+        }
+
+        @Test
+        @DisplayName("Should warm up the default producer when no producer map is configured")
+        void shouldWarmUpDefaultProducer() {
+            assertThat(mocks.template().warmUpProducers(Duration.ofSeconds(1))).containsExactly(entry(TOPIC, true));
+        }
+
+        private static Map<String, PulsarProperties.Producer> producerMap(String... topics) {
+            Map<String, PulsarProperties.Producer> producerMap = new LinkedHashMap<>();
+            for (String topic : topics) {
+                PulsarProperties.Producer producer = new PulsarProperties.Producer();
+                producer.setTopic(topic);
+                producerMap.put(topic + "-producer", producer);
+            }
+            return producerMap;
+        }
+    }
+
+    @Nested
+    @DisplayName("Compression")
+    class Compression {
+
+        @Test
+        @DisplayName("Should create the producer with the configured compression type")
+        void shouldApplyCompressionType() throws PulsarClientException {
+            pulsarProperties.getProducer().setCompressionType("LZ4");
+
+            mocks.template().send(TOPIC, "message");
+
+            verify(mocks.producerBuilder).compressionType(CompressionType.LZ4);
+        }
+
+        @Test
+        @DisplayName("Should send small payloads uncompressed and large payloads through a compressing producer")
+        void shouldCompressLargePayloadsOnly() throws PulsarClientException {
+            pulsarProperties.getProducer().getAdaptiveCompression().setEnabled(true);
+            PulsarTemplate template = mocks.template();
+
+            template.send(TOPIC, "small");
+            verify(mocks.producerBuilder).compressionType(CompressionType.NONE);
+            verify(mocks.producerBuilder, never()).compressionType(CompressionType.ZSTD);
+
+            template.send(TOPIC, LARGE);
+            template.send(TOPIC, LARGE);
+            verify(mocks.producerBuilder).compressionType(CompressionType.ZSTD);
+            verify(mocks.producerBuilder, times(2)).createAsync();
+        }
+
+        @Test
+        @DisplayName("Should compress payloads of exactly the minimum size and not one byte less")
+        void shouldCompressFromMinimumSize() throws PulsarClientException {
+            pulsarProperties.getProducer().getAdaptiveCompression().setEnabled(true);
+            pulsarProperties.getProducer().getAdaptiveCompression().setMinSize(64);
+            PulsarTemplate template = mocks.template();
+
+            template.send(TOPIC, "x".repeat(63));
+            assertThat(template.getProducerStats()).containsOnlyKeys(TOPIC);
+            verify(mocks.producerBuilder, never()).compressionType(CompressionType.ZSTD);
+
+            template.send(TOPIC, "x".repeat(64));
+            assertThat(template.getProducerStats()).containsOnlyKeys(TOPIC, TOPIC + "::compressed");
+            verify(mocks.producerBuilder).compressionType(CompressionType.ZSTD);
+        }
+
+        @Test
+        @DisplayName("Should report the compression ratio of compressing producers")
+        void shouldReportCompressionRatio() throws PulsarClientException {
+            pulsarProperties.getProducer().getAdaptiveCompression().setEnabled(true);
+            ProducerStats producerStats = mock(ProducerStats.class);
+            when(producerStats.getTotalMsgsSent()).thenReturn(2L);
+            when(producerStats.getTotalBytesSent()).thenReturn(512L);
+            when(mocks.producer.getStats()).thenReturn(producerStats);
+            PulsarTemplate template = mocks.template();
+
+            template.send(TOPIC, "small");
+            template.send(TOPIC, LARGE);
+            template.send(TOPIC, LARGE);
+
+            assertThat(template.getCompressionStats()).containsOnlyKeys(TOPIC + "::compressed");
+            CompressionStats stats = template.getCompressionStats().get(TOPIC + "::compressed");
+            assertThat(stats.messages()).isEqualTo(2);
+            assertThat(stats.ratio()).isGreaterThan(7.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Batching and Routing")
+    class Routing {
+
+        @Test
+        @DisplayName("Should create producers with the default batcher and round-robin routing by default")
+        void shouldUseDefaultBatcherAndRouting() throws PulsarClientException {
+            mocks.template().send(TOPIC, "message");
+
+            verify(mocks.producerBuilder).batcherBuilder(BatcherBuilder.DEFAULT);
+            verify(mocks.producerBuilder).messageRoutingMode(MessageRoutingMode.RoundRobinPartition);
+            verify(mocks.producerBuilder, never()).messageRouter(any());
+        }
+
+        @Test
+        @DisplayName("Should create producers with the key based batcher")
+        void shouldUseKeyBasedBatcher() throws PulsarClientException {
+            pulsarProperties.getProducer().setBatcherType("KEY_BASED");
+
+            mocks.template().send(TOPIC, "message");
+
+            verify(mocks.producerBuilder).batcherBuilder(BatcherBuilder.KEY_BASED);
+        }
+
+        @Test
+        @DisplayName("Should route through the message route router in custom partition mode")
+        void shouldUseMsgRouteRouter() throws PulsarClientException {
+            pulsarProperties.getProducer().setRoutingMode("CustomPartition");
+
+            mocks.template().send(TOPIC, "message");
+
+            verify(mocks.producerBuilder).messageRoutingMode(MessageRoutingMode.CustomPartition);
+            verify(mocks.producerBuilder).messageRouter(isA(MsgRouteMessageRouter.class));
+        }
+
+        @Test
+        @DisplayName("Should route through a custom message router")
+        void shouldUseCustomRouter() throws PulsarClientException {
+            pulsarProperties.getProducer().setRoutingMode("CustomPartition");
+            MessageRouter messageRouter = mock(MessageRouter.class);
+            PulsarTemplate template = mocks.template();
+            template.setMessageRouter(messageRouter);
+
+            template.send(TOPIC, "message");
+
+            verify(mocks.producerBuilder).messageRouter(messageRouter);
+        }
+    }
+
+    @Nested
+    @DisplayName("Chunking")
+    class Chunking {
+
+        @BeforeEach
+        void setUp() {
+            pulsarProperties.getProducer().getChunking().setMaxMessageSize(1024);
+        }
+
+        @Test
+        @DisplayName("Should send oversized payloads through a chunking producer without batching")
+        void shouldChunkOversizedPayloads() throws PulsarClientException {
+            pulsarProperties.getProducer().getChunking().setEnabled(true);
+            pulsarProperties.getProducer().getChunking().setChunkSize(512);
+            PulsarTemplate template = mocks.template();
+
+            template.send(TOPIC, "small");
+            verify(mocks.producerBuilder, never()).enableChunking(anyBoolean());
+
+            template.send(TOPIC, LARGE);
+            template.send(TOPIC, LARGE);
+            verify(mocks.producerBuilder).enableChunking(true);
+            verify(mocks.producerBuilder).chunkMaxMessageSize(512);
+            verify(mocks.producerBuilder).enableBatching(false);
+            verify(mocks.producerBuilder, times(2)).createAsync();
+        }
+
+        @Test
+        @DisplayName("Should reject oversized payloads before sending when chunking is disabled")
+        void shouldRejectOversizedPayloads() {
+            PulsarTemplate template = mocks.template();
+
+            assertThatThrownBy(() -> template.send(TOPIC, LARGE))
+                    .isInstanceOf(PulsarProducerSendException.class)
+                    .hasMessageContaining("exceeds the maximum message size");
+            assertThatThrownBy(() -> template.sendAsync(TOPIC, LARGE).join())
+                    .hasCauseInstanceOf(PulsarProducerSendException.class);
+            verify(mocks.pulsarClient, never()).newProducer();
+        }
+
+        @Test
+        @DisplayName("Should send payloads of exactly the maximum size and reject one byte more")
+        void shouldRejectFromOneByteOverMaximumSize() throws PulsarClientException {
+            PulsarTemplate template = mocks.template();
+
+            assertThat(template.send(TOPIC, "x".repeat(1024))).isSameAs(mocks.messageId);
+            assertThatThrownBy(() -> template.send(TOPIC, "x".repeat(1025)))
+                    .isInstanceOf(PulsarProducerSendException.class);
+            verify(mocks.messageBuilder, times(1)).send();
+            verify(mocks.producerBuilder, never()).enableChunking(anyBoolean());
+        }
+
+        @Test
+        @DisplayName("Should fail only the oversized messages of a batch when chunking is disabled")
+        void shouldRejectOversizedBatchMessages() {
+            List<Throwable> afterSendFailures = new ArrayList<>();
+            PulsarTemplate template = mocks.template();
+            template.setInterceptorRegistry(registry(new PulsarMessageInterceptor() {
+                @Override
+                public void afterSend(String topic, Object message, MessageId messageId, Throwable exception) {
+                    afterSendFailures.add(exception);
+                }
+            }));
+
+            BatchSendResult result = template.sendBatch(TOPIC, List.of("small", LARGE, "other"));
+
+            assertThat(result.messageIds()).containsExactly(mocks.messageId, null, mocks.messageId);
+            assertThat(result.failures()).containsOnlyKeys(1);
+            assertThat(result.failures().get(1)).isInstanceOf(PulsarProducerSendException.class);
+            assertThat(afterSendFailures).filteredOn(failure -> failure != null).hasSize(1);
+            verify(mocks.messageBuilder, times(2)).sendAsync();
+            verify(mocks.producerBuilder, never()).enableChunking(anyBoolean());
+        }
+
+        @Test
+        @DisplayName("Should leave oversized payloads of compressing producers to the client")
+        void shouldNotRejectCompressedPayloads() throws PulsarClientException {
+            pulsarProperties.getProducer().setCompressionType("ZSTD");
+
+            mocks.template().send(TOPIC, LARGE);
+
+            verify(mocks.producer).newMessage();
+        }
+    }
+
+    @Nested
+    @DisplayName("Sync Send Modes")
+    class SyncSend {
+
+        @Test
+        @DisplayName("Should flush the pending batch when a blocking send is waiting")
+        void shouldFlushPendingBatch() throws PulsarClientException {
+            pulsarProperties.getProducer().setSyncSendMode("FLUSH");
+            CompletableFuture<MessageId> sendFuture = new CompletableFuture<>();
+            when(mocks.messageBuilder.sendAsync()).thenReturn(sendFuture);
+            when(mocks.producer.flushAsync()).thenAnswer(invocation -> {
+                sendFuture.complete(mocks.messageId);
+                return CompletableFuture.completedFuture(null);
+            });
+
+            assertThat(mocks.template().send(TOPIC, "message")).isSameAs(mocks.messageId);
+            verify(mocks.producer).flushAsync();
+            verify(mocks.messageBuilder, never()).send();
+        }
+
+        @Test
+        @DisplayName("Should send blocking messages through a dedicated non-batching producer")
+        void shouldUseDedicatedProducer() throws PulsarClientException {
+            pulsarProperties.getProducer().setSyncSendMode("DEDICATED");
+            PulsarTemplate template = mocks.template();
+
+            template.send(TOPIC, "blocking");
+            template.sendAsync(TOPIC, "async").join();
+
+            verify(mocks.producerBuilder).enableBatching(false);
+            verify(mocks.producerBuilder).enableBatching(true);
+            verify(mocks.producerBuilder, times(2)).createAsync();
+            assertThat(template.getProducerStats()).containsOnlyKeys(TOPIC, TOPIC + "::sync");
+        }
+
+        @Test
+        @DisplayName("Should share the batching producer by default")
+        void shouldShareBatchingProducerByDefault() throws PulsarClientException {
+            mocks.template().send(TOPIC, "message");
+
+            verify(mocks.messageBuilder).send();
+            verify(mocks.producer, never()).flushAsync();
+            verify(mocks.producerBuilder).enableBatching(true);
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Sending")
+    class SendBatch {
+
+        @Test
+        @DisplayName("Should aggregate message IDs and failures in collection order")
+        void shouldAggregateResults() {
+            MessageId first = mock(MessageId.class);
+            MessageId third = mock(MessageId.class);
+            RuntimeException failure = new RuntimeException("send failed");
+            when(mocks.messageBuilder.sendAsync()).thenReturn(
+                    CompletableFuture.completedFuture(first),
+                    CompletableFuture.failedFuture(failure),
+                    CompletableFuture.completedFuture(third));
+
+            BatchSendResult result = mocks.template().sendBatch(TOPIC, List.of("a", Map.of("b", 1), "c"));
+
+            assertThat(result.messageIds()).containsExactly(first, null, third);
+            assertThat(result.failures()).containsOnlyKeys(1);
+            assertThat(result.failures().get(1)).isSameAs(failure);
+            assertThat(result.successCount()).isEqualTo(2);
+            verify(mocks.producer).flushAsync();
+            verify(mocks.messageBuilder).value("{\"b\":1}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        @DisplayName("Should run message builder interceptors for every message")
+        void shouldApplyBuilderInterceptorsToEveryMessage() {
+            AtomicInteger builderCalls = new AtomicInteger();
+            List<Object> sent = new ArrayList<>();
+            PulsarTemplate template = mocks.template();
+            template.setInterceptorRegistry(registry(new PulsarMessageInterceptor() {
+                @Override
+                public void messageBuilder(TypedMessageBuilder<byte[]> builder) {
+                    builderCalls.incrementAndGet();
+                    builder.property("trace", "t-1");
+                }
+
+                @Override
+                public Object beforeSend(String topic, Object message) {
+                    return "skip".equals(message) ? null : message;
+                }
+
+                @Override
+                public void afterSend(String topic, Object message, MessageId messageId, Throwable exception) {
+                    sent.add(message);
+                }
+            }));
+
+            BatchSendResult result = template.sendBatch(TOPIC, List.of("a", "skip", "b"), message -> "key-" + message);
+
+            assertThat(builderCalls.get()).isEqualTo(2);
+            verify(mocks.messageBuilder, times(2)).property("trace", "t-1");
+            verify(mocks.messageBuilder).key("key-a");
+            verify(mocks.messageBuilder).key("key-b");
+            assertThat(sent).containsExactly("a", "b");
+            assertThat(result.messageIds().get(1)).isNull();
+            assertThat(result.hasFailures()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should apply interceptor effects in interceptor order, one message after the other")
+        void shouldApplyInterceptorEffectsInOrder() {
+            List<String> events = new ArrayList<>();
+            PulsarTemplate template = mocks.template();
+            // Registered out of order, the registry sorts them by their order
+            template.setInterceptorRegistry(registry(
+                    recordingInterceptor("upper", 2, events, String::toUpperCase),
+                    recordingInterceptor("suffix", 1, events, message -> message + "!")));
+
+            BatchSendResult result = template.sendBatch(TOPIC, List.of("a", "b"));
+
+            assertThat(result.successCount()).isEqualTo(2);
+            assertThat(events).containsExactly(
+                    "suffix.beforeSend:a", "upper.beforeSend:a!", "suffix.messageBuilder", "upper.messageBuilder",
+                    "suffix.beforeSend:b", "upper.beforeSend:b!", "suffix.messageBuilder", "upper.messageBuilder",
+                    "suffix.afterSend:A!", "upper.afterSend:A!",
+                    "suffix.afterSend:B!", "upper.afterSend:B!");
+            InOrder inOrder = inOrder(mocks.messageBuilder);
+            for (String value : List.of("A!", "B!")) {
+                inOrder.verify(mocks.messageBuilder).value(value.getBytes(StandardCharsets.UTF_8));
+                inOrder.verify(mocks.messageBuilder).property("stage", "suffix");
+                inOrder.verify(mocks.messageBuilder).property("stage", "upper");
+                inOrder.verify(mocks.messageBuilder).sendAsync();
+            }
+        }
+
+        @Test
+        @DisplayName("Should stamp the send context built by each message's before-send interceptor")
+        void shouldStampSendContextPerMessage() {
+            AtomicInteger contexts = new AtomicInteger();
+            PulsarTemplate template = mocks.template();
+            template.setInterceptorRegistry(registry(new MetaMessageInterceptor() {
+                @Override
+                public void buildSendContext() {
+                    MsgContext.setCorpKey("corp-" + contexts.incrementAndGet());
+                    MsgContext.setMsgRoute("created");
+                }
+
+                @Override
+                public boolean buildReceiveContext(String corpKey) {
+                    return true;
+                }
+            }));
+
+            template.sendBatch(TOPIC, List.of("a", "b"));
+
+            verify(mocks.messageBuilder).property(MsgMetaKey.CORP.getCode(), "corp-1");
+            verify(mocks.messageBuilder).property(MsgMetaKey.CORP.getCode(), "corp-2");
+            verify(mocks.messageBuilder, times(2)).property(MsgMetaKey.MSG_ROUTE.getCode(), "created");
+            assertThat(MsgContext.getCorpKey()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should fail the future when the producer cannot be created")
+        void shouldFailWhenProducerUnavailable() {
+            CompletableFuture<BatchSendResult> future = mocks.template().sendBatchAsync("unknown-topic", List.of("a"));
+
+            assertThat(future).isCompletedExceptionally();
+            verify(mocks.producer, never()).newMessage();
+            verify(mocks.messageBuilder, never()).sendAsync();
+            verify(mocks.producer, never()).flushAsync();
+        }
+
+        @Test
+        @DisplayName("Should report a failed producer creation to the after-send interceptors of every message")
+        void shouldRunAfterSendWhenProducerCreationFails() {
+            when(mocks.producerBuilder.createAsync()).thenReturn(
+                    CompletableFuture.failedFuture(new PulsarClientException("broker unavailable")));
+            Map<Object, Throwable> afterSendFailures = new LinkedHashMap<>();
+            PulsarTemplate template = mocks.template();
+            template.setInterceptorRegistry(registry(new PulsarMessageInterceptor() {
+                @Override
+                public Object beforeSend(String topic, Object message) {
+                    MsgContext.setCorpKey("corp-" + message);
+                    return message;
+                }
+
+                @Override
+                public void afterSend(String topic, Object message, MessageId messageId, Throwable exception) {
+                    afterSendFailures.put(message, exception);
+                }
+            }));
+
+            CompletableFuture<BatchSendResult> future = template.sendBatchAsync(TOPIC, List.of("a", "b"));
+
+            assertThat(future).isCompletedExceptionally();
+            assertThat(afterSendFailures).containsOnlyKeys("a", "b");
+            assertThat(afterSendFailures.values()).allSatisfy(failure -> assertThat(failure).isNotNull());
+            assertThat(MsgContext.getCorpKey()).isNull();
+            verify(mocks.messageBuilder, never()).sendAsync();
+        }
+
+        private PulsarMessageInterceptor recordingInterceptor(String name, int order, List<String> events,
+                                                              UnaryOperator<String> transform) {
+            return new PulsarMessageInterceptor() {
+                @Override
+                public Object beforeSend(String topic, Object message) {
+                    events.add(name + ".beforeSend:" + message);
+                    return transform.apply((String) message);
+                }
+
+                @Override
+                public void messageBuilder(TypedMessageBuilder<byte[]> builder) {
+                    events.add(name + ".messageBuilder");
+                    builder.property("stage", name);
+                }
+
+                @Override
+                public void afterSend(String topic, Object message, MessageId messageId, Throwable exception) {
+                    events.add(name + ".afterSend:" + message);
+                }
+
+                @Override
+                public int getOrder() {
+                    return order;
+                }
+            };
+        }
+    }
+
+    @Nested
+    @DisplayName("Schema Producers")
+    class SchemaProducers {
+
+        private PulsarTemplateMocks<String> schemaMocks;
+        private Schema<String> schema;
+        private PulsarTemplate template;
+
+        @BeforeEach
+        void setUp() {
+            schemaMocks = PulsarTemplateMocks.schema(TOPIC);
+            schema = schema(SchemaType.JSON, "{\"type\":\"record\"}");
+            template = schemaMocks.template();
+        }
+
+        @Test
+        @DisplayName("Should send the value through a producer of the schema")
+        void shouldSendWithSchema() throws PulsarClientException {
+            assertThat(template.send(TOPIC, "key", "value", schema)).isSameAs(schemaMocks.messageId);
+
+            verify(schemaMocks.pulsarClient).newProducer(schema);
+            verify(schemaMocks.pulsarClient, never()).newProducer();
+            verify(schemaMocks.messageBuilder).value("value");
+            verify(schemaMocks.messageBuilder).key("key");
+            verify(schemaMocks.messageBuilder, never()).property(eq(MsgMetaKey.CONTENT_TYPE.getCode()), anyString());
+        }
+
+        @Test
+        @DisplayName("Should share the producer of equal schemas on a topic")
+        void shouldCacheProducerBySchema() throws PulsarClientException {
+            template.send(TOPIC, null, "first", schema);
+            template.sendAsync(TOPIC, null, "second", schema(SchemaType.JSON, "{\"type\":\"record\"}")).join();
+
+            verify(schemaMocks.producerBuilder, times(1)).createAsync();
+        }
+
+        @Test
+        @DisplayName("Should create a producer per schema definition")
+        void shouldCreateProducerPerSchema() throws PulsarClientException {
+            template.send(TOPIC, null, "first", schema);
+            template.send(TOPIC, null, "second", schema(SchemaType.AVRO, "{\"type\":\"record\"}"));
+
+            verify(schemaMocks.producerBuilder, times(2)).createAsync();
+        }
+
+        @Test
+        @DisplayName("Should bound schema producers by the producer cache size")
+        void shouldEvictSchemaProducers() throws PulsarClientException {
+            schemaMocks.pulsarProperties.getProducerCache().setMaxSize(1);
+            PulsarTemplate bounded = schemaMocks.template();
+            Producer<String> first = schemaMocks.newProducer();
+            when(first.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
+            when(schemaMocks.producerBuilder.createAsync())
+                    .thenReturn(CompletableFuture.completedFuture(first))
+                    .thenReturn(CompletableFuture.completedFuture(schemaMocks.newProducer()));
+
+            bounded.send(TOPIC, null, "first", schema);
+            bounded.send(TOPIC, null, "second", schema(SchemaType.AVRO, "{\"type\":\"record\"}"));
+
+            assertThat(bounded.getProducerCacheStats().size()).isEqualTo(1);
+            assertThat(bounded.getProducerCacheStats().evictions()).isEqualTo(1);
+            verify(first).closeAsync();
+        }
+
+        @Test
+        @DisplayName("Should retry producer creation after a failure")
+        void shouldRetryFailedProducer() throws PulsarClientException {
+            when(schemaMocks.producerBuilder.createAsync())
+                    .thenReturn(CompletableFuture.failedFuture(new PulsarClientException("unavailable")))
+                    .thenReturn(CompletableFuture.completedFuture(schemaMocks.newProducer()));
+
+            assertThat(template.sendAsync(TOPIC, null, "first", schema)).isCompletedExceptionally();
+            assertThat(template.send(TOPIC, null, "second", schema)).isSameAs(schemaMocks.messageId);
+        }
+
+        @Test
+        @DisplayName("Should decode payloads with the schema and version of the message regardless of the content type")
+        void shouldDecodeWithSchema() {
+            byte[] version = {0, 0, 0, 1};
+            when(schema.decode(any(byte[].class), eq(version))).thenAnswer(invocation ->
+                    new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8).toUpperCase());
+
+            assertThat(template.createSchemaBinding(schema, String.class)
+                    .decode("value".getBytes(StandardCharsets.UTF_8), "application/json", version))
+                    .isEqualTo("VALUE");
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Schema<String> schema(SchemaType type, String definition) {
+            SchemaInfo schemaInfo = mock(SchemaInfo.class);
+            when(schemaInfo.getType()).thenReturn(type);
+            when(schemaInfo.getSchema()).thenReturn(definition.getBytes(StandardCharsets.UTF_8));
+            Schema<String> schema = mock(Schema.class);
+            when(schema.getSchemaInfo()).thenReturn(schemaInfo);
+            return schema;
+        }
+    }
+
+    private static PulsarInterceptorConfiguration.PulsarInterceptorRegistry registry(PulsarMessageInterceptor... interceptors) {
+        return new PulsarInterceptorConfiguration.PulsarInterceptorRegistry(new ArrayList<>(List.of(interceptors)));
+    }
+}
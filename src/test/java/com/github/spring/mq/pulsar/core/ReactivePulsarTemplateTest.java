@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.spring.mq.pulsar.config.PulsarProperties;
+import org.apache.pulsar.client.api.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ReactivePulsarTemplate
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Reactive Pulsar Template Tests")
+class ReactivePulsarTemplateTest {
+
+    private static final String TOPIC = "reactive-topic";
+
+    private PulsarClient pulsarClient;
+    private PulsarProperties pulsarProperties;
+    private ReactivePulsarTemplate reactivePulsarTemplate;
+
+    @BeforeEach
+    void setUp() {
+        pulsarClient = mock(PulsarClient.class);
+        pulsarProperties = new PulsarProperties();
+        pulsarProperties.getProducer().setTopic(TOPIC);
+        pulsarProperties.getConsumer().setTopic(TOPIC);
+        PulsarTemplate pulsarTemplate = new PulsarTemplate(pulsarClient, pulsarProperties, new ObjectMapper(), null, null);
+        reactivePulsarTemplate = new ReactivePulsarTemplate(pulsarTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should limit in-flight sends to max pending messages and keep upstream order")
+    void shouldBoundInFlightSends() {
+        pulsarProperties.getProducer().setMaxPendingMessages(2);
+        List<CompletableFuture<MessageId>> sends = new ArrayList<>();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        TypedMessageBuilder<byte[]> messageBuilder = mock(TypedMessageBuilder.class, RETURNS_SELF);
+        when(messageBuilder.sendAsync()).thenAnswer(invocation -> {
+            CompletableFuture<MessageId> future = new CompletableFuture<>();
+            sends.add(future);
+            long inFlight = sends.stream().filter(f -> !f.isDone()).count();
+            maxInFlight.accumulateAndGet((int) inFlight, Math::max);
+            return future;
+        });
+        mockProducer(messageBuilder);
+
+        List<MessageId> ids = new ArrayList<>();
+        reactivePulsarTemplate.send(TOPIC, Flux.just("a", "b", "c", "d")).subscribe(ids::add);
+        // Complete out of order, IDs must still follow the upstream order
+        MessageId[] messageIds = new MessageId[4];
+        for (int i = 0; i < 4; i++) {
+            messageIds[i] = mock(MessageId.class);
+        }
+        sends.get(1).complete(messageIds[1]);
+        sends.get(0).complete(messageIds[0]);
+        sends.get(2).complete(messageIds[2]);
+        sends.get(3).complete(messageIds[3]);
+
+        assertThat(maxInFlight.get()).isEqualTo(2);
+        assertThat(ids).containsExactly(messageIds);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should receive only requested messages and acknowledge them")
+    void shouldReceiveOnDemand() {
+        Consumer<byte[]> consumer = mock(Consumer.class);
+        ConsumerBuilder<byte[]> consumerBuilder = mock(ConsumerBuilder.class, RETURNS_SELF);
+        when(pulsarClient.newConsumer()).thenReturn(consumerBuilder);
+        when(consumerBuilder.subscribeAsync()).thenReturn(CompletableFuture.completedFuture(consumer));
+        when(consumer.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
+        AtomicInteger sequence = new AtomicInteger();
+        when(consumer.receiveAsync()).thenAnswer(invocation -> {
+            Message<byte[]> message = mock(Message.class);
+            when(message.getData()).thenReturn(String.valueOf(sequence.incrementAndGet()).getBytes(StandardCharsets.UTF_8));
+            return CompletableFuture.completedFuture(message);
+        });
+
+        List<Integer> received = reactivePulsarTemplate.receive(TOPIC, Integer.class)
+                .take(3)
+                .collectList()
+                .block();
+
+        assertThat(received).containsExactly(1, 2, 3);
+        verify(consumer, times(3)).receiveAsync();
+        verify(consumer, times(3)).acknowledge(any(Message.class));
+        verify(consumer).closeAsync();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockProducer(TypedMessageBuilder<byte[]> messageBuilder) {
+        ProducerBuilder<byte[]> producerBuilder = mock(ProducerBuilder.class, RETURNS_SELF);
+        Producer<byte[]> producer = mock(Producer.class);
+        when(pulsarClient.newProducer()).thenReturn(producerBuilder);
+        when(producerBuilder.createAsync()).thenReturn(CompletableFuture.completedFuture(producer));
+        when(producer.newMessage()).thenReturn(messageBuilder);
+    }
+}
@@ -27,6 +27,7 @@ package com.github.spring.mq.pulsar.exception;
 import com.github.spring.mq.pulsar.annotation.ConsumerExceptionHandler;
 import com.github.spring.mq.pulsar.annotation.ConsumerExceptionResponse;
 import com.github.spring.mq.pulsar.domain.ConsumerExceptionResponseAction;
+import com.github.spring.mq.pulsar.tracing.ConsumeDefaultExceptionHandler;
 import com.github.spring.mq.pulsar.tracing.ConsumeExceptionHandlerContainer;
 import org.apache.pulsar.client.api.Consumer;
 import org.apache.pulsar.client.api.Message;
@@ -173,6 +174,54 @@ class ExceptionHandlingTest {
         assertThat(testExceptionHandler.getHandledException()).isEqualTo(testException);
     }
 
+    @Test
+    @DisplayName("Should NACK unsupported operations thrown by listener code with the default handlers")
+    void shouldNackUserUnsupportedOperation() {
+        registerDefaultHandlers();
+
+        exceptionHandlerContainer.handle(mockConsumer, mockMessage, new UnsupportedOperationException("not yet"));
+
+        verify(mockConsumer).negativeAcknowledge(mockMessage);
+        verify(mockConsumer, never()).acknowledge(any(Message.class));
+    }
+
+    @Test
+    @DisplayName("Should NACK payload decode failures with the default handlers")
+    void shouldNackDecodeFailures() {
+        registerDefaultHandlers();
+
+        exceptionHandlerContainer.handle(mockConsumer, mockMessage,
+                new JacksonException("Failed to decode application/json payload", new IllegalStateException()));
+        exceptionHandlerContainer.handle(mockConsumer, mockMessage,
+                new PulsarSchemaDecodeException("Failed to decode Order payload with its schema", new IllegalStateException()));
+
+        verify(mockConsumer, times(2)).negativeAcknowledge(mockMessage);
+        verify(mockConsumer, never()).acknowledge(any(Message.class));
+    }
+
+    @Test
+    @DisplayName("Should ACK messages of unsupported routes with the default handlers")
+    void shouldAckUnsupportedRoute() throws Exception {
+        registerDefaultHandlers();
+        when(mockConsumer.isConnected()).thenReturn(true);
+
+        exceptionHandlerContainer.handle(mockConsumer, mockMessage,
+                new PulsarMsgRouteUnsupportedException("Business type not supported for route: unknown"));
+
+        verify(mockConsumer).acknowledge(mockMessage);
+        verify(mockConsumer, never()).negativeAcknowledge(any(Message.class));
+    }
+
+    private void registerDefaultHandlers() {
+        ConsumeDefaultExceptionHandler defaultHandler = new ConsumeDefaultExceptionHandler();
+        for (Method method : ConsumeDefaultExceptionHandler.class.getDeclaredMethods()) {
+            ConsumerExceptionHandler annotation = method.getAnnotation(ConsumerExceptionHandler.class);
+            if (annotation != null) {
+                exceptionHandlerContainer.create(defaultHandler, method, annotation);
+            }
+        }
+    }
+
     // Test exception handler class
     public static class TestExceptionHandler {
         private final AtomicBoolean ackHandlerCalled = new AtomicBoolean(false);
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.MessageIdAdv;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for ChunkedMessageMonitor
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Chunked Message Monitor Tests")
+class ChunkedMessageMonitorTest {
+
+    private ChunkedMessageMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new ChunkedMessageMonitor();
+    }
+
+    @Test
+    @DisplayName("Should ignore messages that were not chunked")
+    void shouldIgnoreRegularMessages() {
+        Message<byte[]> message = message(mock(MessageId.class), 100, System.currentTimeMillis());
+
+        assertThat(monitor.received(message)).isFalse();
+        assertThat(monitor.getStats().messages()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should record delivery latency and bytes held until released")
+    void shouldRecordChunkedMessages() {
+        Message<byte[]> first = chunkedMessage(3000, System.currentTimeMillis() - 200);
+        Message<byte[]> second = chunkedMessage(1000, System.currentTimeMillis() - 100);
+
+        assertThat(monitor.received(first)).isTrue();
+        assertThat(monitor.received(second)).isTrue();
+        monitor.released(first);
+
+        ChunkStats stats = monitor.getStats();
+        assertThat(stats.messages()).isEqualTo(2);
+        assertThat(stats.bytes()).isEqualTo(4000);
+        assertThat(stats.maxDeliveryMillis()).isGreaterThanOrEqualTo(200);
+        assertThat(stats.averageDeliveryMillis()).isGreaterThanOrEqualTo(150);
+        assertThat(stats.heldBytes()).isEqualTo(1000);
+        assertThat(stats.maxHeldBytes()).isEqualTo(4000);
+    }
+
+    private Message<byte[]> chunkedMessage(int size, long publishTime) {
+        MessageIdAdv messageId = mock(MessageIdAdv.class);
+        when(messageId.getFirstChunkMessageId()).thenReturn(mock(MessageIdAdv.class));
+        return message(messageId, size, publishTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Message<byte[]> message(MessageId messageId, int size, long publishTime) {
+        Message<byte[]> message = mock(Message.class);
+        when(message.getMessageId()).thenReturn(messageId);
+        when(message.size()).thenReturn(size);
+        when(message.getPublishTime()).thenReturn(publishTime);
+        return message;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ContainerMessageListener
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Container Message Listener Tests")
+class ContainerMessageListenerTest {
+
+    @Mock
+    private Consumer<byte[]> consumer;
+
+    @Mock
+    private Message<byte[]> message;
+
+    @Mock
+    private PulsarListenerContainer container;
+
+    @Test
+    @DisplayName("Should redeliver messages received before the container is bound")
+    void shouldRedeliverBeforeBind() {
+        ContainerMessageListener listener = new ContainerMessageListener();
+
+        listener.received(consumer, message);
+
+        verify(consumer).negativeAcknowledge(message);
+        verifyNoInteractions(container);
+    }
+
+    @Test
+    @DisplayName("Should dispatch to the bound container")
+    void shouldDispatchToBoundContainer() throws Exception {
+        ContainerMessageListener listener = new ContainerMessageListener();
+        listener.bind(container);
+
+        listener.received(consumer, message);
+
+        verify(container).dispatch(consumer, message);
+        verify(consumer, never()).negativeAcknowledge(message);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import com.github.spring.mq.pulsar.exception.PulsarConsumeInitException;
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for HandlerMethodInvoker
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Handler Method Invoker Tests")
+class HandlerMethodInvokerTest {
+
+    @Mock
+    private Consumer<byte[]> consumer;
+
+    @Mock
+    private Message<byte[]> message;
+
+    @Mock
+    private MessageId messageId;
+
+    @Test
+    @DisplayName("Should pass payload to single parameter listener")
+    void shouldInvokePayloadListener() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        HandlerMethodInvoker invoker = HandlerMethodInvoker.forListener(listener,
+                method("payload", String.class), false);
+
+        invoker.invoke("hello", message, consumer, null);
+
+        assertThat(listener.args).containsExactly("hello");
+    }
+
+    @Test
+    @DisplayName("Should resolve message metadata arguments by type")
+    void shouldResolveArgumentsByType() throws Exception {
+        when(message.getMessageId()).thenReturn(messageId);
+        when(message.getProperties()).thenReturn(Map.of("k", "v"));
+        when(message.getKey()).thenReturn("order-1");
+        RecordingListener listener = new RecordingListener();
+        HandlerMethodInvoker invoker = HandlerMethodInvoker.forListener(listener,
+                method("full", String.class, Message.class, MessageId.class, Map.class, String.class, Consumer.class), false);
+
+        invoker.invoke("hello", message, consumer, null);
+
+        assertThat(listener.args).containsExactly("hello", message, messageId, Map.of("k", "v"), "order-1", consumer);
+    }
+
+    @Test
+    @DisplayName("Should pass payload list and raw messages to batch listener")
+    void shouldInvokeBatchListener() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        HandlerMethodInvoker invoker = HandlerMethodInvoker.forListener(listener,
+                method("batch", List.class, List.class), true);
+        List<String> payloads = List.of("a", "b");
+        List<Message<byte[]>> messages = List.of(message, message);
+
+        invoker.invoke(payloads, messages, consumer, null);
+
+        assertThat(listener.args).containsExactly(payloads, messages);
+    }
+
+    @Test
+    @DisplayName("Should resolve exception handler arguments by type")
+    void shouldInvokeExceptionHandler() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        HandlerMethodInvoker invoker = HandlerMethodInvoker.forExceptionHandler(listener,
+                method("onError", IllegalStateException.class, Consumer.class, Message.class));
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        invoker.invoke(null, message, consumer, failure);
+
+        assertThat(listener.args).containsExactly(failure, consumer, message);
+    }
+
+    @Test
+    @DisplayName("Should pass the message key to exception handlers declaring a String parameter")
+    void shouldPassMessageKeyToExceptionHandler() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        HandlerMethodInvoker invoker = HandlerMethodInvoker.forExceptionHandler(listener,
+                method("onKeyedError", IllegalStateException.class, String.class));
+        IllegalStateException failure = new IllegalStateException("boom");
+        when(message.getKey()).thenReturn("order-1");
+
+        invoker.invoke(null, message, consumer, failure);
+
+        assertThat(listener.args).containsExactly(failure, "order-1");
+    }
+
+    @Test
+    @DisplayName("Should propagate listener exceptions unwrapped")
+    void shouldPropagateExceptionsUnwrapped() {
+        RecordingListener listener = new RecordingListener();
+        HandlerMethodInvoker invoker = HandlerMethodInvoker.forListener(listener,
+                method("failing", String.class), false);
+
+        assertThatThrownBy(() -> invoker.invoke("hello", message, consumer, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad payload");
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported parameter types at registration")
+    void shouldRejectUnsupportedParameters() {
+        RecordingListener listener = new RecordingListener();
+
+        assertThatThrownBy(() -> HandlerMethodInvoker.forListener(listener,
+                method("unsupported", String.class, Integer.class), false))
+                .isInstanceOf(PulsarConsumeInitException.class);
+    }
+
+    private static Method method(String name, Class<?>... parameterTypes) {
+        try {
+            return RecordingListener.class.getDeclaredMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings({"unused", "rawtypes"})
+    static class RecordingListener {
+        private final List<Object> args = new ArrayList<>();
+
+        void payload(String payload) {
+            args.add(payload);
+        }
+
+        void full(String payload, Message message, MessageId messageId, Map properties, String key, Consumer consumer) {
+            args.addAll(java.util.Arrays.asList(payload, message, messageId, properties, key, consumer));
+        }
+
+        void batch(List payloads, List messages) {
+            args.add(payloads);
+            args.add(messages);
+        }
+
+        void onError(IllegalStateException exception, Consumer consumer, Message message) {
+            args.add(exception);
+            args.add(consumer);
+            args.add(message);
+        }
+
+        void onKeyedError(IllegalStateException exception, String key) {
+            args.add(exception);
+            args.add(key);
+        }
+
+        void failing(String payload) {
+            throw new IllegalArgumentException("bad payload");
+        }
+
+        void unsupported(String payload, Integer other) {
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for KeyOrderedExecutor
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Key Ordered Executor Tests")
+class KeyOrderedExecutorTest {
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(4);
+    private KeyOrderedExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown(Duration.ofSeconds(5));
+        }
+        workers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should keep submission order for the same key")
+    void shouldKeepOrderForSameKey() throws Exception {
+        executor = new KeyOrderedExecutor(4, 64, workers);
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        int perKey = 200;
+        CountDownLatch done = new CountDownLatch(perKey * 3);
+
+        for (int i = 0; i < perKey; i++) {
+            for (String key : List.of("a", "b", "c")) {
+                int seq = i;
+                executor.submit(key, () -> {
+                    seen.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(seq);
+                    done.countDown();
+                });
+            }
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        for (List<Integer> values : seen.values()) {
+            assertThat(values).isSorted().hasSize(perKey);
+        }
+    }
+
+    @Test
+    @DisplayName("Should run different keys in parallel")
+    void shouldRunDifferentKeysInParallel() throws Exception {
+        executor = new KeyOrderedExecutor(2, 8, workers);
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        // Keys chosen to hash to different lanes
+        String first = "0";
+        String second = "1";
+
+        for (String key : List.of(first, second)) {
+            executor.submit(key, () -> {
+                bothRunning.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertThat(bothRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should keep working after a task fails")
+    void shouldContinueAfterTaskFailure() throws Exception {
+        executor = new KeyOrderedExecutor(1, 4, workers);
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.submit("k", () -> {
+            throw new IllegalStateException("boom");
+        });
+        executor.submit("k", done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should report saturation and signal low water mark")
+    void shouldReportSaturationAndLowWaterMark() throws Exception {
+        executor = new KeyOrderedExecutor(1, 4, workers);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch drained = new CountDownLatch(1);
+        executor.onLowWaterMark(2, drained::countDown);
+        Runnable blocked = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        assertThat(executor.submit("k", blocked)).isTrue();
+        assertThat(executor.submit("k", () -> {
+        })).isTrue();
+        assertThat(executor.submit("k", () -> {
+        })).isTrue();
+        assertThat(executor.submit("k", () -> {
+        })).isFalse();
+        // Accepted beyond capacity
+        assertThat(executor.submit("k", () -> {
+        })).isFalse();
+        assertThat(executor.getPending()).isEqualTo(5);
+
+        release.countDown();
+
+        assertThat(drained.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should signal the low water mark when the backlog drains past it")
+    void shouldSignalLowWaterMarkBelowMark() throws Exception {
+        executor = new KeyOrderedExecutor(1, 8, workers);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch drained = new CountDownLatch(1);
+        executor.submit("k", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.submit("k", () -> {
+        });
+        // Registered above the current backlog, the exact mark is never hit while draining
+        executor.onLowWaterMark(4, drained::countDown);
+
+        release.countDown();
+
+        assertThat(drained.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should yield shared threads to the lanes of other executors")
+    void shouldYieldSharedThreads() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            KeyOrderedExecutor busy = new KeyOrderedExecutor(1, 200, single);
+            KeyOrderedExecutor quiet = new KeyOrderedExecutor(1, 1, single);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger busyRuns = new AtomicInteger();
+            AtomicInteger busyRunsSeenByQuiet = new AtomicInteger(-1);
+            CountDownLatch quietDone = new CountDownLatch(1);
+            busy.submit("k", () -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            for (int i = 0; i < 100; i++) {
+                busy.submit("k", busyRuns::incrementAndGet);
+            }
+            quiet.submit("k", () -> {
+                busyRunsSeenByQuiet.set(busyRuns.get());
+                quietDone.countDown();
+            });
+
+            release.countDown();
+
+            assertThat(quietDone.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(busyRunsSeenByQuiet.get()).isBetween(0, 99);
+            assertThat(busy.shutdown(Duration.ofSeconds(5))).isTrue();
+            assertThat(busyRuns).hasValue(100);
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should wait for queued tasks on shutdown and reject new tasks")
+    void shouldDrainOnShutdown() {
+        executor = new KeyOrderedExecutor(2, 8, workers);
+        AtomicInteger runs = new AtomicInteger();
+        for (int i = 0; i < 8; i++) {
+            executor.submit(String.valueOf(i), () -> {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                runs.incrementAndGet();
+            });
+        }
+
+        assertThat(executor.shutdown(Duration.ofSeconds(5))).isTrue();
+        assertThat(runs).hasValue(8);
+        assertThatThrownBy(() -> executor.submit("k", runs::incrementAndGet))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid concurrency")
+    void shouldRejectInvalidConcurrency() {
+        assertThatThrownBy(() -> new KeyOrderedExecutor(0, 1, workers))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for ListenerScheduler
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Listener Scheduler Tests")
+class ListenerSchedulerTest {
+
+    @Test
+    @DisplayName("Should default to twice the number of processors")
+    void shouldDefaultThreadCount() {
+        ListenerScheduler scheduler = new ListenerScheduler(0, false);
+
+        assertThat(scheduler.getThreads()).isEqualTo(Runtime.getRuntime().availableProcessors() * 2);
+        assertThat(scheduler.isVirtual()).isFalse();
+        scheduler.shutdown(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should run callbacks of all containers in submission order on a single thread")
+    void shouldRunCallbacksInOrder() throws InterruptedException {
+        ListenerScheduler scheduler = new ListenerScheduler(1, false);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(4);
+
+        for (String task : List.of("a1", "b1", "a2", "b2")) {
+            scheduler.executor().execute(() -> {
+                order.add(task);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactly("a1", "b1", "a2", "b2");
+        scheduler.shutdown(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should run delayed tasks after the delay")
+    void shouldScheduleDelayedTask() throws InterruptedException {
+        ListenerScheduler scheduler = new ListenerScheduler(1, false);
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        scheduler.schedule(done::countDown, Duration.ofMillis(100));
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(100);
+        scheduler.shutdown(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should reject a negative thread count")
+    void shouldRejectNegativeThreads() {
+        assertThatThrownBy(() -> new ListenerScheduler(-1, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ListenerThreadFactory
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Listener Thread Factory Tests")
+class ListenerThreadFactoryTest {
+
+    @Test
+    @DisplayName("Should create named daemon platform threads by default")
+    void shouldCreatePlatformThreads() {
+        ListenerThreadFactory factory = ListenerThreadFactory.of("listener", false);
+
+        Thread first = factory.newThread(() -> {
+        });
+        Thread second = factory.newThread(() -> {
+        });
+
+        assertThat(factory.isVirtual()).isFalse();
+        assertThat(first.getName()).isEqualTo("listener-0");
+        assertThat(second.getName()).isEqualTo("listener-1");
+        assertThat(first.isDaemon()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should use virtual threads only when the JVM supports them")
+    void shouldFallBackWithoutVirtualThreadSupport() throws InterruptedException {
+        ListenerThreadFactory factory = ListenerThreadFactory.of("listener", true);
+        AtomicReference<String> name = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        Thread thread = factory.newThread(() -> {
+            name.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+        thread.start();
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(factory.isVirtual()).isEqualTo(ListenerThreadFactory.isVirtualThreadSupported());
+        assertThat(name.get()).isEqualTo("listener-0");
+    }
+
+    @Test
+    @DisplayName("Should run ordered tasks on threads from the supplied factory")
+    void shouldRunKeyOrderedTasksOnFactoryThreads() throws InterruptedException {
+        ExecutorService workers = Executors.newCachedThreadPool(ListenerThreadFactory.of("lane", true));
+        KeyOrderedExecutor executor = new KeyOrderedExecutor(2, 10, workers);
+        AtomicReference<String> name = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.submit("key", () -> {
+            name.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(name.get()).startsWith("lane-");
+        executor.shutdown(Duration.ofSeconds(1));
+        workers.shutdown();
+    }
+}
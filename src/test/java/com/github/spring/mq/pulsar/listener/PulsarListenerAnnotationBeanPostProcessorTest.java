@@ -0,0 +1,218 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import com.github.spring.mq.pulsar.annotation.PulsarListener;
+import com.github.spring.mq.pulsar.core.PulsarTemplate;
+import com.github.spring.mq.pulsar.exception.PulsarConsumeInitException;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for parallel subscription and deferred start in PulsarListenerAnnotationBeanPostProcessor
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Pulsar Listener Annotation Bean Post Processor Tests")
+class PulsarListenerAnnotationBeanPostProcessorTest {
+
+    private PulsarListenerContainerFactory containerFactory;
+    private PulsarTemplate pulsarTemplate;
+    private PulsarListenerAnnotationBeanPostProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        containerFactory = mock(PulsarListenerContainerFactory.class);
+        pulsarTemplate = mock(PulsarTemplate.class);
+        when(containerFactory.getPulsarTemplate()).thenReturn(pulsarTemplate);
+        when(pulsarTemplate.awaitDeadLetterSubscriptions()).thenReturn(CompletableFuture.completedFuture(null));
+        processor = new PulsarListenerAnnotationBeanPostProcessor(containerFactory, Duration.ofMillis(200));
+    }
+
+    @Test
+    @DisplayName("Should subscribe all listeners during post-processing and start them only on lifecycle start")
+    void shouldStartContainersAfterRefresh() {
+        CompletableFuture<PulsarListenerContainer> orders = new CompletableFuture<>();
+        CompletableFuture<PulsarListenerContainer> users = new CompletableFuture<>();
+        stubContainer("orders", orders);
+        stubContainer("users", users);
+
+        processor.postProcessAfterInitialization(new Listeners(), "listeners");
+
+        verify(containerFactory, times(2)).createContainerAsync(any(), any(), any());
+        PulsarListenerContainer ordersContainer = mock(PulsarListenerContainer.class);
+        PulsarListenerContainer usersContainer = mock(PulsarListenerContainer.class);
+        orders.complete(ordersContainer);
+        users.complete(usersContainer);
+        verify(ordersContainer, never()).start();
+
+        processor.start();
+
+        assertThat(processor.isRunning()).isTrue();
+        verify(ordersContainer).start();
+        verify(usersContainer).start();
+        verify(pulsarTemplate).startDeadLetterListeners();
+    }
+
+    @Test
+    @DisplayName("Should add further methods of a topic to the subscribing container")
+    void shouldAddMethodsToPendingContainer() throws NoSuchMethodException {
+        CompletableFuture<PulsarListenerContainer> orders = new CompletableFuture<>();
+        stubContainer("orders", orders);
+        stubContainer("users", CompletableFuture.completedFuture(mock(PulsarListenerContainer.class)));
+        Listeners bean = new Listeners();
+        processor.postProcessAfterInitialization(bean, "listeners");
+        SecondOrderListener second = new SecondOrderListener();
+        processor.postProcessAfterInitialization(second, "secondOrderListener");
+
+        PulsarListenerContainer container = mock(PulsarListenerContainer.class);
+        orders.complete(container);
+        processor.start();
+
+        Method method = SecondOrderListener.class.getMethod("onOrder", String.class);
+        verify(container).addMethod(eq(second), eq(method), any(PulsarListener.class));
+        verify(containerFactory, times(2)).createContainerAsync(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fail startup when a consumer cannot subscribe")
+    void shouldFailOnSubscriptionError() {
+        stubContainer("orders", CompletableFuture.failedFuture(new PulsarClientException("topic not found")));
+        stubContainer("users", CompletableFuture.completedFuture(mock(PulsarListenerContainer.class)));
+
+        processor.postProcessAfterInitialization(new Listeners(), "listeners");
+
+        assertThatThrownBy(processor::start)
+                .isInstanceOf(PulsarConsumeInitException.class)
+                .hasCauseInstanceOf(PulsarClientException.class);
+        assertThat(processor.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should fail startup when consumers do not subscribe within the timeout")
+    void shouldFailOnTimeout() {
+        stubContainer("orders", new CompletableFuture<>());
+        stubContainer("users", CompletableFuture.completedFuture(mock(PulsarListenerContainer.class)));
+
+        processor.postProcessAfterInitialization(new Listeners(), "listeners");
+
+        assertThatThrownBy(processor::start)
+                .isInstanceOf(PulsarConsumeInitException.class)
+                .hasMessageContaining("Timed out");
+    }
+
+    @Test
+    @DisplayName("Should warm up the message type of every listener during registration")
+    void shouldWarmUpMessageTypes() {
+        stubContainer("orders", new CompletableFuture<>());
+        stubContainer("users", new CompletableFuture<>());
+
+        processor.postProcessAfterInitialization(new Listeners(), "listeners");
+
+        verify(pulsarTemplate, times(2)).warmUpMessageType(String.class, "");
+    }
+
+    @Test
+    @DisplayName("Should start subscribing a listener before warming up its message type")
+    void shouldSubscribeBeforeWarmUp() {
+        stubContainer("orders", new CompletableFuture<>());
+        stubContainer("users", new CompletableFuture<>());
+
+        processor.postProcessAfterInitialization(new Listeners(), "listeners");
+
+        InOrder inOrder = inOrder(containerFactory, pulsarTemplate);
+        inOrder.verify(containerFactory).createContainerAsync(any(), any(), any());
+        inOrder.verify(pulsarTemplate).warmUpMessageType(String.class, "");
+    }
+
+    @Test
+    @DisplayName("Should forget stopped containers and subscribe the listeners again on restart")
+    void shouldResubscribeOnRestart() {
+        PulsarListenerContainer ordersContainer = mock(PulsarListenerContainer.class);
+        PulsarListenerContainer usersContainer = mock(PulsarListenerContainer.class);
+        stubContainer("orders", CompletableFuture.completedFuture(ordersContainer));
+        stubContainer("users", CompletableFuture.completedFuture(usersContainer));
+        processor.postProcessAfterInitialization(new Listeners(), "listeners");
+        processor.start();
+
+        processor.stop();
+
+        verify(ordersContainer).stop();
+        verify(containerFactory).clear();
+        assertThat(processor.isRunning()).isFalse();
+
+        processor.start();
+
+        verify(containerFactory, times(4)).createContainerAsync(any(), any(), any());
+        verify(ordersContainer, times(2)).start();
+        verify(usersContainer, times(2)).start();
+        assertThat(processor.isRunning()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should fail with a clear error when the factory has no template")
+    void shouldFailWithoutTemplate() {
+        when(containerFactory.getPulsarTemplate()).thenReturn(null);
+
+        assertThatThrownBy(processor::start)
+                .isInstanceOf(PulsarConsumeInitException.class)
+                .hasMessageContaining("no PulsarTemplate");
+    }
+
+    private void stubContainer(String topic, CompletableFuture<PulsarListenerContainer> future) {
+        when(containerFactory.createContainerAsync(any(), any(),
+                argThat(annotation -> annotation != null && topic.equals(annotation.topic())))).thenReturn(future);
+    }
+
+    static class Listeners {
+
+        @PulsarListener(topic = "orders")
+        public void onOrder(String message) {
+        }
+
+        @PulsarListener(topic = "users")
+        public void onUser(String message) {
+        }
+    }
+
+    static class SecondOrderListener {
+
+        @PulsarListener(topic = "orders")
+        public void onOrder(String message) {
+        }
+    }
+}
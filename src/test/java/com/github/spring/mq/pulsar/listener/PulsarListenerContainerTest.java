@@ -0,0 +1,361 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.spring.mq.pulsar.annotation.PulsarListener;
+import com.github.spring.mq.pulsar.config.PulsarInterceptorConfiguration;
+import com.github.spring.mq.pulsar.config.PulsarProperties;
+import com.github.spring.mq.pulsar.core.PulsarTemplate;
+import com.github.spring.mq.pulsar.domain.ListenerType;
+import com.github.spring.mq.pulsar.domain.MessageSchema;
+import com.github.spring.mq.pulsar.domain.MsgContext;
+import com.github.spring.mq.pulsar.exception.PulsarConsumeInitException;
+import com.github.spring.mq.pulsar.exception.PulsarMsgRouteUnsupportedException;
+import com.github.spring.mq.pulsar.exception.PulsarSchemaDecodeException;
+import com.github.spring.mq.pulsar.interceptor.PulsarMessageInterceptor;
+import com.github.spring.mq.pulsar.tracing.ConsumeExceptionHandlerContainer;
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.common.schema.SchemaInfo;
+import org.apache.pulsar.common.schema.SchemaType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PulsarListenerContainer
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@DisplayName("Pulsar Listener Container Tests")
+class PulsarListenerContainerTest {
+
+    @Test
+    @DisplayName("Should treat single message methods as non-batch")
+    void shouldDetectSingleMessageMethod() throws Exception {
+        Method method = Listeners.class.getDeclaredMethod("single", String.class);
+
+        assertThat(PulsarListenerContainer.batchElementType(method, String.class)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should resolve batch element type from list generics")
+    void shouldResolveBatchElementType() throws Exception {
+        Method method = Listeners.class.getDeclaredMethod("orders", List.class);
+
+        assertThat(PulsarListenerContainer.batchElementType(method, String.class)).isEqualTo(Order.class);
+    }
+
+    @Test
+    @DisplayName("Should resolve raw message batches")
+    void shouldResolveRawMessageBatch() throws Exception {
+        Method method = Listeners.class.getDeclaredMethod("raw", List.class);
+
+        assertThat(PulsarListenerContainer.batchElementType(method, String.class)).isEqualTo(Message.class);
+    }
+
+    @Test
+    @DisplayName("Should fall back to message type for raw lists")
+    void shouldFallBackToMessageType() throws Exception {
+        Method method = Listeners.class.getDeclaredMethod("untyped", List.class);
+
+        assertThat(PulsarListenerContainer.batchElementType(method, Order.class)).isEqualTo(Order.class);
+    }
+
+    @Test
+    @DisplayName("Should keep list payloads when message type is a collection")
+    void shouldKeepListPayload() throws Exception {
+        Method method = Listeners.class.getDeclaredMethod("untyped", List.class);
+
+        assertThat(PulsarListenerContainer.batchElementType(method, List.class)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fetch the payload once for routing and decoding")
+    void shouldFetchPayloadOnce() throws Exception {
+        OrderHandlers handlers = new OrderHandlers();
+        Message<byte[]> message = message("{\"type\":\"created\",\"id\":\"1\"}");
+
+        container(handlers, mock(ConsumeExceptionHandlerContainer.class)).processMessage(consumer(), message);
+
+        assertThat(handlers.created).extracting(order -> order.id).containsExactly("1");
+        verify(message, times(1)).getData();
+    }
+
+    @Test
+    @DisplayName("Should hand the fetched payload to the exception handler")
+    void shouldPassPayloadToExceptionHandler() throws Exception {
+        ConsumeExceptionHandlerContainer exceptionHandlers = mock(ConsumeExceptionHandlerContainer.class);
+        Message<byte[]> message = message("{\"type\":\"unknown\"}");
+        Consumer<byte[]> consumer = consumer();
+
+        container(new OrderHandlers(), exceptionHandlers).processMessage(consumer, message);
+
+        verify(message, times(1)).getData();
+        verify(exceptionHandlers).handle(eq(consumer), eq(message),
+                eq("{\"type\":\"unknown\"}".getBytes(StandardCharsets.UTF_8)), any(PulsarMsgRouteUnsupportedException.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a schema combined with a dataKey")
+    void shouldRejectSchemaWithDataKey() throws Exception {
+        PulsarTemplate template = new PulsarTemplate(mock(PulsarClient.class), new PulsarProperties(),
+                new ObjectMapper(), null, null);
+        Method created = OrderHandlers.class.getDeclaredMethod("created", Order.class);
+
+        assertThatThrownBy(() -> new PulsarListenerContainer(consumer(), new OrderHandlers(), "created", created,
+                "type", "data", true, Order.class, MessageSchema.JSON.create(Order.class), template, ListenerType.LOOP,
+                mock(ConsumeExceptionHandlerContainer.class), 1, 16, template.getListenerScheduler()))
+                .isInstanceOf(PulsarConsumeInitException.class)
+                .hasMessageContaining("dataKey");
+    }
+
+    @Test
+    @DisplayName("Should decode payloads carrying a schema version with the schema the consumer subscribed with")
+    void shouldDecodeVersionedPayloadWithConsumerSchema() throws Exception {
+        byte[] version = {0, 0, 0, 2};
+        Schema<Order> schema = schema();
+        when(schema.decode(any(byte[].class), eq(version))).thenAnswer(invocation -> {
+            Order order = new Order();
+            order.id = "v2";
+            return order;
+        });
+        OrderHandlers handlers = new OrderHandlers();
+        Message<byte[]> message = message("{\"id\":\"1\"}");
+        when(message.getSchemaVersion()).thenReturn(version);
+
+        schemaContainer(handlers, schema, mock(ConsumeExceptionHandlerContainer.class)).processMessage(consumer(), message);
+
+        assertThat(handlers.created).extracting(order -> order.id).containsExactly("v2");
+        verify(schema).decode("{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8), version);
+    }
+
+    @Test
+    @DisplayName("Should hand schema decode failures to the exception handler as schema decode exceptions")
+    void shouldReportSchemaDecodeFailures() throws Exception {
+        Schema<Order> schema = schema();
+        when(schema.decode(any(byte[].class), any())).thenThrow(new IllegalStateException("unknown schema version"));
+        ConsumeExceptionHandlerContainer exceptionHandlers = mock(ConsumeExceptionHandlerContainer.class);
+        Message<byte[]> message = message("{\"id\":\"1\"}");
+        when(message.getSchemaVersion()).thenReturn(new byte[]{0, 0, 0, 3});
+        Consumer<byte[]> consumer = consumer();
+
+        schemaContainer(new OrderHandlers(), schema, exceptionHandlers).processMessage(consumer, message);
+
+        verify(exceptionHandlers).handle(eq(consumer), eq(message), any(byte[].class),
+                any(PulsarSchemaDecodeException.class));
+    }
+
+    @Test
+    @DisplayName("Should reject schema handlers on a consumer subscribed without their schema")
+    void shouldRejectSchemaHandlerWithoutConsumerSchema() throws Exception {
+        PulsarListenerContainer container = container(new OrderHandlers(), mock(ConsumeExceptionHandlerContainer.class));
+        Method audited = SchemaHandlers.class.getDeclaredMethod("audited", Order.class);
+
+        assertThatThrownBy(() -> container.addMethod(new SchemaHandlers(), audited,
+                audited.getAnnotation(PulsarListener.class)))
+                .isInstanceOf(PulsarConsumeInitException.class)
+                .hasMessageContaining("no schema");
+    }
+
+    @Test
+    @DisplayName("Should drain the worker lane of LOOP handlers on the shared listener scheduler")
+    void shouldRunHandlerOnWorkerLane() throws Exception {
+        OrderHandlers handlers = new OrderHandlers();
+        PulsarListenerContainer container = container(handlers, mock(ConsumeExceptionHandlerContainer.class));
+
+        assertThat(container.dispatch(consumer(), message("{\"type\":\"created\",\"id\":\"1\"}"))).isTrue();
+        container.stop();
+
+        assertThat(handlers.created).extracting(order -> order.id).containsExactly("1");
+        assertThat(handlers.thread).startsWith("pulsar-listener-scheduler-");
+    }
+
+    @Test
+    @DisplayName("Should run after-receive interceptors of a batch once the handler has thrown")
+    void shouldRunAfterReceiveAfterBatchHandler() throws Exception {
+        List<String> events = new ArrayList<>();
+        RuntimeException failure = new IllegalStateException("boom");
+        PulsarMessageInterceptor interceptor = new PulsarMessageInterceptor() {
+            @Override
+            public boolean beforeReceive(Message<?> message) {
+                MsgContext.setCorpKey(message.getKey());
+                events.add("before " + message.getKey());
+                return true;
+            }
+
+            @Override
+            public void afterReceive(Message<?> message, Object processedMessage, Exception exception) {
+                events.add("after " + MsgContext.getCorpKey() + " " + (exception == failure));
+                MsgContext.remove();
+            }
+        };
+        PulsarTemplate template = new PulsarTemplate(mock(PulsarClient.class), new PulsarProperties(),
+                new ObjectMapper(), null, null);
+        template.setInterceptorRegistry(
+                new PulsarInterceptorConfiguration.PulsarInterceptorRegistry(new ArrayList<>(List.of(interceptor))));
+        BatchHandlers handlers = new BatchHandlers(events, failure);
+        Method orders = BatchHandlers.class.getDeclaredMethod("orders", List.class);
+        PulsarListenerContainer container = new PulsarListenerContainer(consumer(), handlers, "", orders,
+                "", "", true, Order.class, null, template, ListenerType.LOOP,
+                mock(ConsumeExceptionHandlerContainer.class), 1, 16, template.getListenerScheduler());
+
+        container.processBatch(consumer(), messages(keyed("a", "{\"id\":\"1\"}"), keyed("b", "{\"id\":\"2\"}")));
+
+        assertThat(events).containsExactly("before a", "before b", "handle b", "after b true", "after a true");
+        assertThat(MsgContext.getCorpKey()).isNull();
+    }
+
+    private static PulsarListenerContainer container(OrderHandlers handlers,
+                                                     ConsumeExceptionHandlerContainer exceptionHandlers) throws Exception {
+        PulsarTemplate template = new PulsarTemplate(mock(PulsarClient.class), new PulsarProperties(),
+                new ObjectMapper(), null, null);
+        Method created = OrderHandlers.class.getDeclaredMethod("created", Order.class);
+        Method cancelled = OrderHandlers.class.getDeclaredMethod("cancelled", Order.class);
+        PulsarListenerContainer container = new PulsarListenerContainer(consumer(), handlers, "created", created,
+                "type", "", true, Order.class, null, template, ListenerType.LOOP,
+                exceptionHandlers, 1, 16, template.getListenerScheduler());
+        container.addMethod(handlers, cancelled, cancelled.getAnnotation(PulsarListener.class));
+        return container;
+    }
+
+    private static PulsarListenerContainer schemaContainer(OrderHandlers handlers, Schema<Order> schema,
+                                                           ConsumeExceptionHandlerContainer exceptionHandlers) throws Exception {
+        PulsarTemplate template = new PulsarTemplate(mock(PulsarClient.class), new PulsarProperties(),
+                new ObjectMapper(), null, null);
+        Method created = OrderHandlers.class.getDeclaredMethod("created", Order.class);
+        return new PulsarListenerContainer(consumer(), handlers, "", created,
+                "", "", true, Order.class, schema, template, ListenerType.LOOP,
+                exceptionHandlers, 1, 16, template.getListenerScheduler());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Schema<Order> schema() {
+        SchemaInfo schemaInfo = mock(SchemaInfo.class);
+        when(schemaInfo.getType()).thenReturn(SchemaType.JSON);
+        when(schemaInfo.getSchema()).thenReturn("{\"type\":\"record\"}".getBytes(StandardCharsets.UTF_8));
+        Schema<Order> schema = mock(Schema.class);
+        when(schema.getSchemaInfo()).thenReturn(schemaInfo);
+        return schema;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<byte[]> consumer() {
+        return mock(Consumer.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Message<byte[]> message(String payload) {
+        Message<byte[]> message = mock(Message.class);
+        when(message.getProperties()).thenReturn(Map.of());
+        when(message.getData()).thenReturn(payload.getBytes(StandardCharsets.UTF_8));
+        return message;
+    }
+
+    private static Message<byte[]> keyed(String key, String payload) {
+        Message<byte[]> message = message(payload);
+        when(message.getKey()).thenReturn(key);
+        return message;
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private static Messages<byte[]> messages(Message<byte[]>... messages) {
+        Messages<byte[]> batch = mock(Messages.class);
+        when(batch.size()).thenReturn(messages.length);
+        when(batch.iterator()).thenAnswer(invocation -> List.of(messages).iterator());
+        return batch;
+    }
+
+    public static class Order {
+        public String type;
+        public String id;
+    }
+
+    static class OrderHandlers {
+        final List<Order> created = new ArrayList<>();
+        volatile String thread;
+
+        @PulsarListener(msgRoute = "created", routeKey = "type", messageType = Order.class)
+        void created(Order order) {
+            created.add(order);
+            thread = Thread.currentThread().getName();
+        }
+
+        @PulsarListener(msgRoute = "cancelled", routeKey = "type", messageType = Order.class)
+        void cancelled(Order order) {
+        }
+    }
+
+    static class SchemaHandlers {
+        @PulsarListener(msgRoute = "audited", routeKey = "type", messageType = Order.class, schema = MessageSchema.JSON)
+        void audited(Order order) {
+        }
+    }
+
+    static class BatchHandlers {
+        private final List<String> events;
+        private final RuntimeException failure;
+
+        BatchHandlers(List<String> events, RuntimeException failure) {
+            this.events = events;
+            this.failure = failure;
+        }
+
+        void orders(List<Order> orders) {
+            events.add("handle " + MsgContext.getCorpKey());
+            throw failure;
+        }
+    }
+
+    @SuppressWarnings({"unused", "rawtypes"})
+    static class Listeners {
+        void single(String message) {
+        }
+
+        void orders(List<Order> orders) {
+        }
+
+        void raw(List<Message<byte[]>> messages) {
+        }
+
+        void untyped(List messages) {
+        }
+    }
+}
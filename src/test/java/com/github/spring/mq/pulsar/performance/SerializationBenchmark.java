@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 avinzhang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.spring.mq.pulsar.performance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.spring.mq.pulsar.codec.EncodeBuffer;
+import com.github.spring.mq.pulsar.codec.EncodeBufferPool;
+import com.github.spring.mq.pulsar.codec.JacksonMessageCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization benchmark of message payloads
+ *
+ * <p>Compares {@code ObjectMapper.writeValueAsBytes} with encoding through pooled
+ * {@link EncodeBuffer}s as done by {@code PulsarTemplate}. Run with the GC profiler to
+ * compare the allocation rate per message:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.github.spring.mq.pulsar.performance.SerializationBenchmark
+ * </pre>
+ *
+ * @author avinzhang
+ * @since 1.2.23
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /**
+     * Approximate size of the encoded body in bytes
+     */
+    @Param({"512", "4096", "65536"})
+    private int bodySize;
+
+    private ObjectMapper objectMapper;
+    private JacksonMessageCodec codec;
+    private EncodeBufferPool pool;
+    private Map<String, Object> message;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        codec = new JacksonMessageCodec(objectMapper);
+        pool = new EncodeBufferPool(Runtime.getRuntime().availableProcessors() * 2, 1024, 1024 * 1024);
+        message = new LinkedHashMap<>();
+        message.put("msgRoute", "order.created");
+        message.put("timestamp", System.currentTimeMillis());
+        message.put("data", "x".repeat(bodySize));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] writeValueAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] pooledBuffer() throws Exception {
+        EncodeBuffer buffer = pool.acquire();
+        try {
+            return codec.encode(message, buffer);
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SerializationBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}